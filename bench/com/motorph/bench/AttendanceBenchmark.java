@@ -0,0 +1,67 @@
+package com.motorph.bench;
+
+import com.motorph.AttendanceProcessor;
+import com.motorph.AttendanceSummary;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * AttendanceBenchmark.java - Pay period attendance queries (AttendanceProcessor)
+ * against an already loaded attendance index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttendanceBenchmark {
+
+    @Param({"10001"})
+    public String employeeNumber;
+
+    // One week and one full month of the bundled logs
+    @Param({"2024-06-10:2024-06-16", "2024-07-01:2024-07-31"})
+    public String period;
+
+    private AttendanceProcessor processor;
+    private String startDate;
+    private String endDate;
+
+    @Setup
+    public void setup() {
+        processor = new AttendanceProcessor();
+        String[] dates = period.split(":");
+        startDate = dates[0];
+        endDate = dates[1];
+        // Load the shared index outside the measurement
+        processor.computeAttendance(employeeNumber, startDate, endDate);
+    }
+
+    @Benchmark
+    public double computeHoursWorked() {
+        return processor.computeHoursWorked(employeeNumber, startDate, endDate);
+    }
+
+    @Benchmark
+    public double computeLateMinutes() {
+        return processor.computeLateMinutes(employeeNumber, startDate, endDate);
+    }
+
+    @Benchmark
+    public AttendanceSummary computeAttendance() {
+        return processor.computeAttendance(employeeNumber, startDate, endDate);
+    }
+}
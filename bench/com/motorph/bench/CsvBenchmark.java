@@ -0,0 +1,59 @@
+package com.motorph.bench;
+
+import com.motorph.AttendanceIndex;
+import com.motorph.CSVReader;
+import com.motorph.Employee;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CsvBenchmark.java - Parsing cost of the bundled CSV files (CSVReader) and of
+ * building the attendance index from attendance.csv, sequentially and in parallel.
+ * The parallel loader only splits files of 4 MB or more; point it at generated data with
+ * -p attendanceFile=target/scale-data/data/attendance.csv
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvBenchmark {
+
+    @Param("data/attendance.csv")
+    public String attendanceFile;
+
+    private final CSVReader csvReader = new CSVReader();
+
+    @Benchmark
+    public List<String[]> readAttendanceCsv() {
+        return csvReader.readCSV(attendanceFile);
+    }
+
+    @Benchmark
+    public List<Employee> loadEmployees() {
+        return csvReader.loadEmployees("data/employees.csv");
+    }
+
+    @Benchmark
+    public AttendanceIndex loadAttendanceIndex() {
+        return AttendanceIndex.load(attendanceFile);
+    }
+
+    @Benchmark
+    public AttendanceIndex loadAttendanceIndexParallel() {
+        return AttendanceIndex.loadParallel(attendanceFile, Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,238 @@
+package com.motorph.bench;
+
+import com.motorph.Money;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * DataGenerator.java - Deterministic large-scale employees.csv and attendance.csv.
+ * Writes files in exactly the column layout of the bundled data (quoted addresses,
+ * supervisors and comma-formatted salary fields in columns 13-17, hourly rate in 18),
+ * with realistic late arrivals and a small share of malformed rows. The same seed
+ * always produces the same files. sss.csv and tax.csv are copied from data/, so the
+ * parent of OUT_DIR can be used as a working directory for the application itself.
+ *
+ * Usage: java com.motorph.bench.DataGenerator [OUT_DIR] [EMPLOYEES] [YEARS] [SEED] [MALFORMED_RATE]
+ *        defaults: target/scale-data/data 100000 3 53 0.0001
+ */
+public class DataGenerator {
+
+    private static final String EMPLOYEE_HEADER = "Employee #,Last Name,First Name,Birthday,Address,"
+            + "Phone Number,SSS #,Philhealth #,TIN #,Pag-ibig #,Status,Position,Immediate Supervisor,"
+            + "Basic Salary,Rice Subsidy,Phone Allowance,Clothing Allowance,Gross Semi-monthly Rate,Hourly Rate";
+    private static final String ATTENDANCE_HEADER = "Employee #,Last Name,First Name,Date,Log In,Log Out";
+    private static final String NEWLINE = "\r\n"; // the bundled files use CRLF
+
+    private static final String[] LAST_NAMES = {"Garcia", "Lim", "Aquino", "Reyes", "Hernandez",
+            "Villanueva", "San Jose", "Romualdez", "Atienza", "Alvaro", "Salcedo", "Lopez", "Farala",
+            "Martinez", "Mata", "De Leon", "Rosario", "Bautista", "Lazaro", "Delos Santos", "Santos",
+            "Del Rosario", "Tolentino", "Gutierrez", "Manalaysay", "Villegas", "Ramos", "Maceda",
+            "Aguilar", "Castro", "Mendoza", "Cruz", "Dela Cruz", "Navarro", "Pascual", "Torres"};
+    private static final String[] FIRST_NAMES = {"Manuel III", "Antonio", "Bianca Sofia", "Isabella",
+            "Eduard", "Andrea Mae", "Brad", "Alice", "Rosie", "Roderick", "Anthony", "Josie", "Martha",
+            "Leila", "Fredrick", "Christian", "Selena", "Allison", "Cydney", "Mark", "Darlene",
+            "Kolby", "Vella", "Tomas", "Jacklyn", "Percival", "Garfield", "Lizeth", "Carol", "Emelia",
+            "Delia", "John Rafael", "Carlos Ian", "Beatriz", "Miguel", "Patricia"};
+    private static final String[] CITIES = {"Makati City", "Quezon City", "Pasig City", "Taguig",
+            "Dasmarinas, Cavite", "Mandaluyong City", "Cebu City", "Davao City", "Baguio City"};
+
+    /** Position, basic salary, phone allowance, clothing allowance. */
+    private static final Object[][] POSITIONS = {
+            {"Chief Executive Officer", 90_000, 2_000, 1_000},
+            {"HR Manager", 62_670, 1_000, 1_000},
+            {"Accounting Head", 52_670, 1_000, 1_000},
+            {"IT Operations and Systems", 52_670, 1_000, 1_000},
+            {"Payroll Team Leader", 50_825, 1_000, 1_000},
+            {"Sales & Marketing", 52_670, 1_000, 1_000},
+            {"Supply Chain and Logistics", 52_670, 1_000, 1_000},
+            {"Customer Service and Relations", 52_670, 1_000, 1_000},
+            {"Payroll Rank and File", 38_475, 800, 500},
+            {"HR Rank and File", 24_000, 500, 500},
+            {"Account Rank and File", 22_500, 500, 500},
+            {"Sales Rank and File", 23_250, 500, 500},
+    };
+
+    private final Random random;
+    private final double malformedRate;
+    private final StringBuilder line = new StringBuilder(256);
+
+    public DataGenerator(long seed, double malformedRate) {
+        this.random = new Random(seed);
+        this.malformedRate = malformedRate;
+    }
+
+    /**
+     * Writes employees.csv for employee numbers 10001 .. 10000 + count.
+     *
+     * @return Number of rows written
+     */
+    public int writeEmployees(File file, int count) throws IOException {
+        try (Writer out = new BufferedWriter(new FileWriter(file), 1 << 16)) {
+            out.write(EMPLOYEE_HEADER);
+            out.write(NEWLINE);
+            for (int i = 0; i < count; i++) {
+                int empNo = 10001 + i;
+                // First employee heads the company; everyone else reports to an earlier employee
+                int positionIndex = i == 0 ? 0 : 1 + random.nextInt(POSITIONS.length - 1);
+                Object[] position = POSITIONS[positionIndex];
+                int salary = (Integer) position[1];
+
+                line.setLength(0);
+                line.append(empNo).append(',').append(lastName(empNo)).append(',').append(firstName(empNo));
+                line.append(',').append(twoDigits(1 + random.nextInt(12))).append('/')
+                    .append(twoDigits(1 + random.nextInt(28))).append('/').append(1960 + random.nextInt(45));
+                line.append(",\"").append(1 + random.nextInt(999)).append(" Rizal Street, ")
+                    .append(CITIES[random.nextInt(CITIES.length)]).append('"');
+                line.append(',').append(digits(3)).append('-').append(digits(3)).append('-').append(digits(3));
+                line.append(',').append(digits(2)).append('-').append(digits(7)).append('-').append(digits(1));
+                line.append(',').append(digits(12));
+                line.append(',').append(digits(3)).append('-').append(digits(3)).append('-').append(digits(3)).append("-000");
+                line.append(',').append(digits(12));
+                line.append(',').append(random.nextInt(3) == 0 ? "Probationary" : "Regular");
+                line.append(',').append((String) position[0]);
+                if (i == 0) {
+                    line.append(",N/A");
+                } else {
+                    int supervisor = 10001 + random.nextInt(Math.min(i, 50));
+                    line.append(",\"").append(lastName(supervisor)).append(", ").append(firstName(supervisor)).append('"');
+                }
+
+                if (random.nextDouble() < malformedRate) {
+                    // Malformed: salary column that cannot be parsed
+                    line.append(",N/A,\"1,500\",,,,");
+                } else {
+                    line.append(',');
+                    appendAmount(salary);
+                    line.append(',');
+                    appendAmount(1_500);
+                    line.append(',');
+                    appendAmount((Integer) position[2]);
+                    line.append(',');
+                    appendAmount((Integer) position[3]);
+                    line.append(',');
+                    appendAmount((salary + 1) / 2);
+                    line.append(',').append(Money.toPlainString(Money.ofPesos(salary / 168.0)));
+                }
+                out.append(line).append(NEWLINE);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes attendance.csv with one row per employee per weekday, date-major like
+     * the bundled file.
+     *
+     * @return Number of rows written
+     */
+    public long writeAttendance(File file, int employees, LocalDate start, LocalDate end) throws IOException {
+        long rows = 0;
+        try (Writer out = new BufferedWriter(new FileWriter(file), 1 << 20)) {
+            out.write(ATTENDANCE_HEADER);
+            out.write(NEWLINE);
+            for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+                if (d.getDayOfWeek() == DayOfWeek.SATURDAY || d.getDayOfWeek() == DayOfWeek.SUNDAY) continue;
+                String date = twoDigits(d.getMonthValue()) + "/" + twoDigits(d.getDayOfMonth()) + "/" + d.getYear();
+                for (int i = 0; i < employees; i++) {
+                    if (random.nextInt(50) == 0) continue; // absent
+                    int empNo = 10001 + i;
+                    // Arrival: mostly 7:30-8:10, a long tail of late arrivals up to ~10:30
+                    int in = 450 + random.nextInt(40);
+                    if (random.nextInt(4) == 0) {
+                        in = 491 + (int) Math.min(150, Math.abs(random.nextGaussian() * 45));
+                    }
+                    int out2 = in + 480 + random.nextInt(90) - 30;
+
+                    line.setLength(0);
+                    line.append(empNo).append(',').append(lastName(empNo)).append(',').append(firstName(empNo)).append(',');
+                    if (random.nextDouble() < malformedRate) {
+                        appendMalformed(date, in);
+                    } else {
+                        line.append(date).append(',');
+                        appendTime(in);
+                        line.append(',');
+                        appendTime(out2);
+                    }
+                    out.append(line).append(NEWLINE);
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void appendMalformed(String date, int in) {
+        switch (random.nextInt(4)) {
+            case 0:  line.append("13/45/2024,"); appendTime(in); line.append(",17:00"); break; // bad date
+            case 1:  line.append(date).append(','); appendTime(in); break;                    // missing time out
+            case 2:  line.append(date).append(",8:xx,17:00"); break;                          // bad time
+            default: line.append(date).append(",,"); break;                                   // empty times
+        }
+    }
+
+    private void appendTime(int minuteOfDay) {
+        line.append(minuteOfDay / 60).append(':');
+        int m = minuteOfDay % 60;
+        if (m < 10) line.append('0');
+        line.append(m);
+    }
+
+    private void appendAmount(int pesos) {
+        // Comma-formatted amounts are quoted, as in the bundled file
+        if (pesos >= 1000) {
+            line.append('"').append(pesos / 1000).append(',');
+            int rest = pesos % 1000;
+            if (rest < 100) line.append('0');
+            if (rest < 10) line.append('0');
+            line.append(rest).append('"');
+        } else {
+            line.append(pesos);
+        }
+    }
+
+    private String digits(int n) {
+        char[] c = new char[n];
+        for (int i = 0; i < n; i++) c[i] = (char) ('0' + random.nextInt(10));
+        return new String(c);
+    }
+
+    private static String lastName(int empNo)  { return LAST_NAMES[empNo % LAST_NAMES.length]; }
+    private static String firstName(int empNo) { return FIRST_NAMES[(empNo / LAST_NAMES.length) % FIRST_NAMES.length]; }
+
+    private static String twoDigits(int v) {
+        return v < 10 ? "0" + v : Integer.toString(v);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String outDir    = args.length > 0 ? args[0] : "target/scale-data/data";
+        int employees    = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int years        = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        long seed        = args.length > 3 ? Long.parseLong(args[3]) : 53;
+        double malformed = args.length > 4 ? Double.parseDouble(args[4]) : 0.0001;
+
+        File dir = new File(outDir);
+        dir.mkdirs();
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end   = start.plusYears(years).minusDays(1);
+
+        DataGenerator generator = new DataGenerator(seed, malformed);
+        long t0 = System.nanoTime();
+        generator.writeEmployees(new File(dir, "employees.csv"), employees);
+        long rows = generator.writeAttendance(new File(dir, "attendance.csv"), employees, start, end);
+        for (String table : new String[]{"sss.csv", "tax.csv"}) {
+            Files.copy(Paths.get("data", table), Paths.get(outDir, table), StandardCopyOption.REPLACE_EXISTING);
+        }
+        System.out.printf("Generated %,d employees and %,d attendance rows (%s to %s) in %s in %.1f s%n",
+                employees, rows, start, end, outDir, (System.nanoTime() - t0) / 1e9);
+    }
+}
@@ -0,0 +1,116 @@
+package com.motorph.bench;
+
+import com.motorph.DeductionCalculator;
+import com.motorph.Money;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DeductionBenchmark.java - SSS and withholding tax bracket lookups (DeductionCalculator)
+ * over a fixed spread of salaries covering every bracket. Scores are lookups per second.
+ * The batch* benchmarks compute the same values with the array variants.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeductionBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    private DeductionCalculator calculator;
+    private long[] salaries;
+    private long[] out;
+
+    @Setup
+    public void setup() {
+        calculator = new DeductionCalculator();
+        salaries = new long[SAMPLES];
+        out = new long[SAMPLES];
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            // PHP 2,000 to PHP 250,000
+            salaries[i] = Money.ONE_PESO * (2_000 + random.nextInt(248_000));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public long computeSSS() {
+        long sum = 0;
+        for (long salary : salaries) {
+            sum += calculator.computeSSS(salary);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public long computeWithholdingTax() {
+        long sum = 0;
+        for (long salary : salaries) {
+            sum += calculator.computeWithholdingTax(salary);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public long computeAllScalar() {
+        long sum = 0;
+        for (long salary : salaries) {
+            sum += calculator.computeSSS(salary) + calculator.computePhilHealth(salary)
+                    + calculator.computePagIbig(salary) + calculator.computeWithholdingTax(salary);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public long[] batchSSS() {
+        calculator.computeSSS(salaries, out, SAMPLES);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public long[] batchWithholdingTax() {
+        calculator.computeWithholdingTax(salaries, out, SAMPLES);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public long batchAll() {
+        long sum = 0;
+        calculator.computeSSS(salaries, out, SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) sum += out[i];
+        calculator.computePhilHealth(salaries, out, SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) sum += out[i];
+        calculator.computePagIbig(salaries, out, SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) sum += out[i];
+        calculator.computeWithholdingTax(salaries, out, SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) sum += out[i];
+        return sum;
+    }
+
+    @Benchmark
+    public DeductionCalculator newCalculator() {
+        return new DeductionCalculator();
+    }
+}
@@ -0,0 +1,89 @@
+package com.motorph.bench;
+
+import com.motorph.PayrollServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HttpLoadTest.java - Concurrent load against PayrollServer. Keeps CONCURRENCY requests
+ * in flight, cycling through employees 10001-10034, weekly pay periods of the bundled
+ * data and the lookup, payroll and payslip endpoints. Reports throughput, latency
+ * percentiles and errors. With "embedded" as the URL the server is started in-process.
+ *
+ * Usage: java com.motorph.bench.HttpLoadTest [URL|embedded] [CONCURRENCY] [REQUESTS]
+ *        defaults: embedded 200 20000
+ */
+public class HttpLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String base     = args.length > 0 ? args[0] : "embedded";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int requests    = args.length > 2 ? Integer.parseInt(args[2]) : 20000;
+
+        PayrollServer server = null;
+        if (base.equals("embedded")) {
+            server = new PayrollServer(0, concurrency);
+            server.start();
+            base = "http://localhost:" + server.getPort();
+            System.out.println("Started embedded server on " + base
+                    + (server.usesVirtualThreads() ? " (virtual threads)" : " (thread pool)"));
+        }
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String[] endpoints = {"/employees/", "/payroll/", "/payslip/"};
+        Semaphore inFlight = new Semaphore(concurrency);
+        long[] latencies = new long[requests];
+        AtomicLong errors = new AtomicLong();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[requests];
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int emp = 10001 + i % 34;
+            LocalDate start = LocalDate.of(2024, 6, 3).plusWeeks((i / 34) % 30);
+            String uri = base + endpoints[i % endpoints.length] + emp
+                    + "?start=" + start + "&end=" + start.plusDays(6);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(uri)).GET().build();
+
+            inFlight.acquire();
+            int slot = i;
+            long sent = System.nanoTime();
+            futures[i] = client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, failure) -> {
+                        latencies[slot] = System.nanoTime() - sent;
+                        if (failure != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(futures).exceptionally(e -> null).join();
+        double seconds = (System.nanoTime() - t0) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.println("=== HTTP LOAD TEST ===");
+        System.out.printf("  Requests     : %,d (%d concurrent)%n", requests, concurrency);
+        System.out.printf("  Errors       : %,d%n", errors.get());
+        System.out.printf("  Duration     : %.3f s%n", seconds);
+        System.out.printf("  Throughput   : %,.0f requests/sec%n", requests / seconds);
+        System.out.printf("  Latency      : p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90),
+                percentile(latencies, 0.99), latencies[requests - 1] / 1e6);
+
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(sorted.length * fraction) - 1);
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,84 @@
+package com.motorph.bench;
+
+import com.motorph.AttendanceProcessor;
+import com.motorph.AttendanceSummary;
+import com.motorph.Employee;
+import com.motorph.EmployeeRepository;
+import com.motorph.PayrollCalculator;
+import com.motorph.PayrollResult;
+import com.motorph.PayslipRenderer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PayrollBenchmark.java - End-to-end payslip for one employee, as done by
+ * Main.generatePayslip: employee lookup, attendance, payroll and text rendering.
+ * Each invocation moves to the next employee in the bundled data.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayrollBenchmark {
+
+    private static final String START_DATE = "2024-06-10";
+    private static final String END_DATE   = "2024-06-16";
+
+    private EmployeeRepository repository;
+    private AttendanceProcessor attendanceProcessor;
+    private PayrollCalculator payrollCalculator;
+    private PayslipRenderer renderer;
+    private String[] employeeNumbers;
+    private int next;
+
+    @Setup
+    public void setup() {
+        repository = new EmployeeRepository("data/employees.csv");
+        attendanceProcessor = new AttendanceProcessor();
+        payrollCalculator = new PayrollCalculator();
+        renderer = new PayslipRenderer(PayslipRenderer.Format.TEXT);
+
+        List<Employee> employees = repository.findAll();
+        employeeNumbers = new String[employees.size()];
+        for (int i = 0; i < employeeNumbers.length; i++) {
+            employeeNumbers[i] = employees.get(i).getEmployeeNumber();
+        }
+        attendanceProcessor.computeAttendance(employeeNumbers[0], START_DATE, END_DATE);
+    }
+
+    @Benchmark
+    public PayrollResult computePayroll() {
+        return compute(nextEmployee());
+    }
+
+    @Benchmark
+    public String computeAndRenderPayslip() {
+        return renderer.render(compute(nextEmployee()));
+    }
+
+    private String nextEmployee() {
+        String empNum = employeeNumbers[next];
+        next = (next + 1) % employeeNumbers.length;
+        return empNum;
+    }
+
+    private PayrollResult compute(String empNum) {
+        Employee emp = repository.findByNumber(empNum);
+        AttendanceSummary attendance = attendanceProcessor.computeAttendance(empNum, START_DATE, END_DATE);
+        return payrollCalculator.computePayroll(emp, attendance, START_DATE, END_DATE);
+    }
+}
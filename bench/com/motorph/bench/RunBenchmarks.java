@@ -0,0 +1,25 @@
+package com.motorph.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * RunBenchmarks.java - Entry point of target/benchmarks.jar.
+ * Accepts the usual JMH command line options (e.g. a benchmark regex, -f, -wi, -i)
+ * and always attaches the GC profiler so allocation rate is reported with throughput.
+ *
+ * Run from the repository root so the bundled data/ files are found.
+ */
+public class RunBenchmarks {
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
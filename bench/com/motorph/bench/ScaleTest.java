@@ -0,0 +1,140 @@
+package com.motorph.bench;
+
+import com.motorph.AttendanceIndex;
+import com.motorph.BatchPayroll;
+import com.motorph.CSVReader;
+import com.motorph.DeductionCalculator;
+import com.motorph.DeductionTables;
+import com.motorph.Employee;
+import com.motorph.PayrollCalculator;
+import com.motorph.PayrollResult;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * ScaleTest.java - Times a full pay-period run over generated data and reports peak heap.
+ * Stages: load employees, index attendance, compile deduction tables, compute every
+ * employee's payroll, write the register. Generate the data first with DataGenerator.
+ * Employees, attendance and deduction tables are read from DATA_DIR; shifts and holidays
+ * always come from data/ under the working directory (ShiftSchedule.shared and
+ * HolidayCalendar.shared), so run it from the project root to use the bundled files.
+ * Peak heap is the largest total heap in use before any collection, or at the end.
+ *
+ * Usage: java -Xmx8g com.motorph.bench.ScaleTest [DATA_DIR] [START_DATE] [END_DATE] [THREADS]
+ *        defaults: target/scale-data/data 2025-06-02 2025-06-15 all cores
+ */
+public class ScaleTest {
+
+    public static void main(String[] args) throws IOException {
+        String dataDir   = args.length > 0 ? args[0] : "target/scale-data/data";
+        String startDate = args.length > 1 ? args[1] : "2025-06-02";
+        String endDate   = args.length > 2 ? args[2] : "2025-06-15";
+        int threads      = args.length > 3 ? Integer.parseInt(args[3])
+                : Runtime.getRuntime().availableProcessors();
+
+        File employeesFile  = new File(dataDir, "employees.csv");
+        File attendanceFile = new File(dataDir, "attendance.csv");
+        if (!employeesFile.isFile() || !attendanceFile.isFile()) {
+            System.err.println("No generated data in " + dataDir + "; run com.motorph.bench.DataGenerator first.");
+            System.exit(1);
+        }
+        AtomicLong peakHeap = new AtomicLong();
+        trackPeakHeap(peakHeap);
+
+        long t0 = System.nanoTime();
+        List<Employee> employees = new CSVReader().loadEmployees(employeesFile.getPath());
+        long t1 = System.nanoTime();
+        AttendanceIndex index = AttendanceIndex.load(attendanceFile.getPath());
+        long t2 = System.nanoTime();
+        DeductionTables tables = DeductionTables.load(new File(dataDir, "sss.csv").getPath(),
+                new File(dataDir, "tax.csv").getPath());
+        PayrollCalculator calculator = new PayrollCalculator(new DeductionCalculator(tables));
+        long t3 = System.nanoTime();
+        List<PayrollResult> results = new BatchPayroll(employees, index, calculator)
+                .run(startDate, endDate, threads);
+        long t4 = System.nanoTime();
+        BatchPayroll.writeRegister(results, "target/scale-register_" + startDate + "_" + endDate + ".csv");
+        long t5 = System.nanoTime();
+
+        System.out.println("=== SCALE TEST ===");
+        System.out.printf("  Data          : %s (%,d MB attendance)%n", dataDir, attendanceFile.length() >> 20);
+        System.out.printf("  Pay Period    : %s to %s%n", startDate, endDate);
+        System.out.printf("  Employees     : %,d%n", results.size());
+        System.out.printf("  Threads       : %d%n", threads);
+        System.out.printf("  Load employees: %8.3f s%n", (t1 - t0) / 1e9);
+        System.out.printf("  Index attend. : %8.3f s%n", (t2 - t1) / 1e9);
+        System.out.printf("  Deduction tbl : %8.3f s%n", (t3 - t2) / 1e9);
+        System.out.printf("  Compute       : %8.3f s (%,.0f employees/sec)%n", (t4 - t3) / 1e9,
+                results.size() / Math.max((t4 - t3) / 1e9, 1e-9));
+        System.out.printf("  Write register: %8.3f s%n", (t5 - t4) / 1e9);
+        System.out.printf("  Total         : %8.3f s%n", (t5 - t0) / 1e9);
+        System.out.printf("  Shifts, hol.  : %s%n", new File("data").getAbsolutePath());
+        peakHeap.accumulateAndGet(usedHeapBytes(), Math::max);
+        System.out.printf("  Peak heap     : %,d MB (max %,d MB)%n", peakHeap.get() >> 20,
+                Runtime.getRuntime().maxMemory() >> 20);
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, gc.getCollectionCount());
+            gcMillis += Math.max(0, gc.getCollectionTime());
+        }
+        System.out.printf("  GC            : %,d collections, %,d ms%n", gcCount, gcMillis);
+    }
+
+    /**
+     * Records the heap in use just before each collection. The pools are summed at one
+     * instant, unlike their peak usages, which each pool reaches at a different time.
+     */
+    private static void trackPeakHeap(AtomicLong peak) {
+        Set<String> heapPools = new HashSet<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heapPools.add(pool.getName());
+            }
+        }
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(gc instanceof NotificationEmitter)) continue;
+            ((NotificationEmitter) gc).addNotificationListener((notification, handback) -> {
+                if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION
+                        .equals(notification.getType())) {
+                    return;
+                }
+                GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+                        .from((CompositeData) notification.getUserData());
+                long used = 0;
+                for (Map.Entry<String, MemoryUsage> pool : info.getGcInfo().getMemoryUsageBeforeGc().entrySet()) {
+                    if (heapPools.contains(pool.getKey())) {
+                        used += pool.getValue().getUsed();
+                    }
+                }
+                peak.accumulateAndGet(used, Math::max);
+            }, null, null);
+        }
+    }
+
+    /** Sum of the current usage of every heap memory pool. */
+    private static long usedHeapBytes() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+}
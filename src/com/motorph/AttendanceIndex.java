@@ -0,0 +1,326 @@
+package com.motorph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * AttendanceIndex.java - In-memory index of the attendance logs (FR-02).
+ * The attendance CSV is read once and grouped by employee number into
+ * primitive arrays sorted by date, so a pay period query is a binary search
+ * followed by a walk over only the days inside the period.
+ */
+public class AttendanceIndex implements AttendanceSource {
+
+    /** Attendance records of one employee, sorted by epoch day. */
+    private static final class EmployeeLog {
+        final int[] epochDays;
+        final short[] minuteIn;
+        final short[] minuteOut;
+
+        EmployeeLog(int[] epochDays, short[] minuteIn, short[] minuteOut) {
+            this.epochDays = epochDays;
+            this.minuteIn = minuteIn;
+            this.minuteOut = minuteOut;
+        }
+    }
+
+    /** Rows of one employee collected in file order before sorting. */
+    private static final class LogBuilder {
+        long[] packed = new long[16];
+        int size;
+
+        void add(int epochDay, int in, int out) {
+            if (size == packed.length) {
+                packed = Arrays.copyOf(packed, size * 2);
+            }
+            packed[size++] = ((long) epochDay << 32) | ((long) in << 16) | out;
+        }
+
+        void addAll(LogBuilder other) {
+            if (size + other.size > packed.length) {
+                packed = Arrays.copyOf(packed, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.packed, 0, packed, size, other.size);
+            size += other.size;
+        }
+
+        EmployeeLog build() {
+            long[] rows = Arrays.copyOf(packed, size);
+            Arrays.sort(rows);
+            int[] days = new int[size];
+            short[] ins = new short[size];
+            short[] outs = new short[size];
+            for (int i = 0; i < size; i++) {
+                days[i] = (int) (rows[i] >> 32);
+                ins[i]  = (short) ((rows[i] >>> 16) & 0xFFFF);
+                outs[i] = (short) (rows[i] & 0xFFFF);
+            }
+            return new EmployeeLog(days, ins, outs);
+        }
+    }
+
+    /** Rows parsed from one byte range of the file, in file order. */
+    private static final class Chunk {
+        final Map<String, LogBuilder> builders = new HashMap<>();
+        long rows;
+        long[] rejectRows = new long[0];
+        int[] rejectCodes = new int[0];
+        final List<String[]> rejectFields = new ArrayList<>();
+        int rejectCount;
+
+        static Chunk parse(FileChannel channel, long start, long end, boolean header) {
+            Chunk chunk = new Chunk();
+            AttendanceRowParser parser = new AttendanceRowParser();
+            try (CSVTokenizer tokenizer = new CSVTokenizer(
+                    new InputStreamReader(new FileRangeInputStream(channel, start, end)))) {
+                if (header) {
+                    tokenizer.nextRow();
+                }
+                CSVReader.forEachRow(tokenizer, row -> {
+                    chunk.rows++;
+                    int code = parser.parse(row);
+                    if (code != AttendanceRowParser.OK) {
+                        chunk.reject(chunk.rows, code, row);
+                        return;
+                    }
+                    chunk.builders.computeIfAbsent(row[0].trim(), k -> new LogBuilder())
+                            .add(parser.getEpochDay(), parser.getMinuteIn(), parser.getMinuteOut());
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return chunk;
+        }
+
+        private void reject(long row, int code, String[] fields) {
+            if (rejectCount == rejectRows.length) {
+                rejectRows = Arrays.copyOf(rejectRows, Math.max(16, rejectCount * 2));
+                rejectCodes = Arrays.copyOf(rejectCodes, rejectRows.length);
+            }
+            rejectRows[rejectCount] = row;
+            rejectCodes[rejectCount] = code;
+            rejectFields.add(fields);
+            rejectCount++;
+        }
+    }
+
+    private static final long MIN_PARALLEL_BYTES = 4L << 20; // smaller files load sequentially
+
+    private final Map<String, EmployeeLog> logs;
+
+    private AttendanceIndex(Map<String, EmployeeLog> logs) {
+        this.logs = logs;
+    }
+
+    /**
+     * Reads the attendance CSV once and builds the per-employee index.
+     *
+     * @param filePath Path to attendance.csv
+     * @return Index over all valid attendance rows
+     */
+    public static AttendanceIndex load(String filePath) {
+        PayrollEvents.AttendanceLoad event = PayrollEvents.beginAttendanceLoad();
+        AttendanceRowParser parser = new AttendanceRowParser();
+        Map<String, LogBuilder> builders = new HashMap<>();
+        long[] rowNumber = {0};
+        long rejected;
+
+        try (RejectFile rejects = RejectFile.forInput(filePath, false)) {
+            new CSVReader().forEachRow(filePath, row -> {
+                rowNumber[0]++;
+                int code = parser.parse(row);
+                if (code != AttendanceRowParser.OK) {
+                    // Skip malformed rows
+                    rejects.reject(rowNumber[0], AttendanceRowParser.reason(code), row);
+                    return;
+                }
+                builders.computeIfAbsent(row[0].trim(), k -> new LogBuilder())
+                        .add(parser.getEpochDay(), parser.getMinuteIn(), parser.getMinuteOut());
+            });
+            rejected = rejects.getCount();
+        }
+
+        Map<String, EmployeeLog> logs = new HashMap<>();
+        for (Map.Entry<String, LogBuilder> entry : builders.entrySet()) {
+            logs.put(entry.getKey(), entry.getValue().build());
+        }
+        if (event != null) {
+            event.record(filePath, rowNumber[0], rejected, logs.size());
+        }
+        return new AttendanceIndex(logs);
+    }
+
+    /**
+     * Loads the attendance CSV on several threads. The file is split into byte ranges
+     * that start at line boundaries, each range is tokenized and parsed on its own, and
+     * the per-employee rows are merged in file order, so the index and the reject file
+     * are identical to load(). Files below MIN_PARALLEL_BYTES are loaded sequentially.
+     * Attendance rows never contain quoted line breaks, so a line break always ends a row.
+     * Each chunk's reading and tokenizing is recorded as one CSV_LOAD sample.
+     *
+     * @param filePath Path to attendance.csv
+     * @param threads  Number of worker threads
+     * @return Index over all valid attendance rows
+     */
+    public static AttendanceIndex loadParallel(String filePath, int threads) {
+        File file = new File(filePath);
+        if (threads <= 1 || file.length() < MIN_PARALLEL_BYTES) {
+            return load(filePath);
+        }
+        PayrollEvents.AttendanceLoad event = PayrollEvents.beginAttendanceLoad();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            int chunkCount = (int) Math.min(threads * 4L, Math.max(1, size / (MIN_PARALLEL_BYTES / 4)));
+            long[] bounds = new long[chunkCount + 1];
+            for (int i = 1; i < chunkCount; i++) {
+                bounds[i] = FileRangeInputStream.nextLineStart(channel, size / chunkCount * i);
+            }
+            bounds[chunkCount] = size;
+
+            List<Chunk> chunks = pool.submit(() -> IntStream.range(0, chunkCount).parallel()
+                    .mapToObj(i -> Chunk.parse(channel, bounds[i], bounds[i + 1], i == 0))
+                    .collect(Collectors.toList()))
+                    .get();
+
+            // Merge in file order and report rejects with file-wide row numbers
+            Map<String, LogBuilder> builders = new HashMap<>();
+            long rowsBefore = 0;
+            long rejected;
+            try (RejectFile rejects = RejectFile.forInput(filePath, false)) {
+                for (Chunk chunk : chunks) {
+                    for (Map.Entry<String, LogBuilder> entry : chunk.builders.entrySet()) {
+                        LogBuilder merged = builders.get(entry.getKey());
+                        if (merged == null) {
+                            builders.put(entry.getKey(), entry.getValue());
+                        } else {
+                            merged.addAll(entry.getValue());
+                        }
+                    }
+                    for (int r = 0; r < chunk.rejectCount; r++) {
+                        rejects.reject(rowsBefore + chunk.rejectRows[r],
+                                AttendanceRowParser.reason(chunk.rejectCodes[r]), chunk.rejectFields.get(r));
+                    }
+                    rowsBefore += chunk.rows;
+                }
+                rejected = rejects.getCount();
+            }
+
+            Map<String, EmployeeLog> logs = pool.submit(() -> builders.entrySet().parallelStream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().build())))
+                    .get();
+            if (event != null) {
+                event.record(filePath, rowsBefore, rejected, logs.size());
+            }
+            return new AttendanceIndex(new HashMap<>(logs));
+        } catch (IOException e) {
+            return readFailed(filePath, e);
+        } catch (UncheckedIOException e) {
+            return readFailed(filePath, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Attendance load interrupted", e);
+        } catch (ExecutionException e) {
+            // A chunk that failed to read is a read error, as in load()
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof UncheckedIOException) {
+                    return readFailed(filePath, ((UncheckedIOException) cause).getCause());
+                }
+            }
+            throw new IllegalStateException("Attendance load failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Reports a read error the way CSVReader does for load() and returns an empty index. */
+    private static AttendanceIndex readFailed(String filePath, IOException e) {
+        System.err.println("Error reading file: " + filePath);
+        System.err.println(e.getMessage());
+        return new AttendanceIndex(new HashMap<>());
+    }
+
+    /**
+     * Computes hours worked and late minutes for an employee in one pass.
+     * Minutes up to the shift length are regular hours and the rest overtime; late
+     * minutes are counted against the shift start on working days (see ShiftSchedule).
+     * Night, rest-day and holiday premiums are added in the same pass
+     * (see AttendanceRules.addDay).
+     *
+     * @param employeeNumber The employee ID
+     * @param start          First day of the pay period (inclusive)
+     * @param end            Last day of the pay period (inclusive)
+     * @return Hours worked and late minutes for the period
+     */
+    @Override
+    public AttendanceSummary summarize(String employeeNumber, LocalDate start, LocalDate end) {
+        EmployeeLog log = logs.get(employeeNumber);
+        if (log == null) {
+            return new AttendanceSummary(0, 0);
+        }
+
+        int startDay = (int) start.toEpochDay();
+        int endDay   = (int) end.toEpochDay();
+        int[] days = log.epochDays;
+
+        long[] week = ShiftSchedule.shared().weekOf(employeeNumber);
+        HolidayCalendar holidays = HolidayCalendar.shared();
+
+        long[] totals = new long[AttendanceSummary.FIELDS];
+        for (int i = lowerBound(days, startDay); i < days.length && days[i] <= endDay; i++) {
+            int day = days[i];
+            AttendanceRules.addDay(totals, 0, week[AttendanceRules.dayOfWeek(day)], holidays.typeOf(day),
+                    log.minuteIn[i], log.minuteOut[i]);
+        }
+        return AttendanceSummary.of(totals, 0);
+    }
+
+    /**
+     * Hashes every row of the employee in the period, weekends included, in any
+     * order (see PayrollLedger.rowHash).
+     */
+    @Override
+    public long fingerprint(String employeeNumber, LocalDate start, LocalDate end) {
+        EmployeeLog log = logs.get(employeeNumber);
+        long sum = 0;
+        if (log != null) {
+            int endDay = (int) end.toEpochDay();
+            int[] days = log.epochDays;
+            for (int i = lowerBound(days, (int) start.toEpochDay()); i < days.length && days[i] <= endDay; i++) {
+                sum += PayrollLedger.rowHash(days[i], log.minuteIn[i], log.minuteOut[i]);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the index of the first element not less than the key.
+     */
+    private static int lowerBound(int[] sorted, int key) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
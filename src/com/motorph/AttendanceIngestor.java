@@ -0,0 +1,385 @@
+package com.motorph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * AttendanceIngestor.java - Incremental ingestion of an append-only attendance CSV (FR-02).
+ * Each call to ingest() reads only the complete rows appended since the last saved byte
+ * offset and adds them to running per-employee, per-pay-period totals of capped minutes
+ * worked, late minutes, overtime and premiums. The offset and totals are persisted, so
+ * a restart resumes where it stopped, and closing a pay period only walks the employees.
+ * A hash of the first and last blocks before the offset is persisted with them, so a file
+ * rewritten in place, not only appended to, is ingested again from the start.
+ * Rows are totalled with the shifts and holidays in effect when they are ingested.
+ *
+ * Pay periods come from a PayPeriodCalendar; the default is weekly, Monday to Sunday.
+ * It is not an AttendanceSource: totals are only kept per pay period, so it cannot answer
+ * queries for arbitrary date ranges the way the row-keeping sources do.
+ *
+ * Usage: java com.motorph.AttendanceIngestor [CSV_FILE] [STATE_FILE] [PERIOD_START_DATE]
+ */
+public class AttendanceIngestor {
+
+    private static final int STATE_MAGIC   = 0x4D504143; // "MPAC"
+    private static final int STATE_VERSION = 8;
+    private static final int PREFIX_BLOCK  = 8192; // bytes hashed at each end of the ingested prefix
+
+    /** Running totals of one employee, indexed by pay period number. */
+    private static final class PeriodTotals {
+        int[] periods = new int[8];
+        long[] totals = new long[8 * AttendanceSummary.FIELDS]; // AttendanceSummary.FIELDS per period
+        int size;
+        long[] week; // Day rules of the employee's shift, resolved on the first row ingested
+
+        int slot(int period) {
+            // Recent periods are appended at the end, so search from the back
+            for (int i = size - 1; i >= 0; i--) {
+                if (periods[i] == period) return i;
+            }
+            if (size == periods.length) {
+                periods = Arrays.copyOf(periods, size * 2);
+                totals = Arrays.copyOf(totals, size * 2 * AttendanceSummary.FIELDS);
+            }
+            periods[size] = period;
+            return size++;
+        }
+
+        int find(int period) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (periods[i] == period) return i;
+            }
+            return -1;
+        }
+    }
+
+    private final File csvFile;
+    private final File stateFile;
+    private final PayPeriodCalendar calendar;
+    private final Map<String, PeriodTotals> totals = new HashMap<>();
+    private long offset;
+    private long rowCount; // data rows read up to offset, for reject row numbers
+    private long prefixHash; // prefixHash() of the file up to offset
+
+    public AttendanceIngestor(String csvPath, String statePath) {
+        this(csvPath, statePath, PayPeriodCalendar.weekly());
+    }
+
+    public AttendanceIngestor(String csvPath, String statePath, PayPeriodCalendar calendar) {
+        this.csvFile = new File(csvPath);
+        this.stateFile = new File(statePath);
+        this.calendar = calendar;
+    }
+
+    /** @return Byte offset of the first row not yet ingested */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Restores the saved offset and totals. A missing or incompatible state file
+     * (e.g., a different period length) starts over from the beginning of the CSV.
+     *
+     * @return true if saved state was restored
+     */
+    public synchronized boolean restore() {
+        totals.clear();
+        offset = 0;
+        rowCount = 0;
+        prefixHash = 0;
+        if (!stateFile.isFile()) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(stateFile)))) {
+            if (in.readInt() != STATE_MAGIC || in.readInt() != STATE_VERSION
+                    || in.readInt() != calendar.getAnchorDay() || in.readInt() != calendar.getLengthDays()) {
+                return false;
+            }
+            long savedOffset = in.readLong();
+            long savedRows = in.readLong();
+            long savedHash = in.readLong();
+            int employees = in.readInt();
+            for (int e = 0; e < employees; e++) {
+                String empNum = in.readUTF();
+                PeriodTotals t = new PeriodTotals();
+                int n = in.readInt();
+                for (int i = 0; i < n; i++) {
+                    int at = t.slot(in.readInt()) * AttendanceSummary.FIELDS;
+                    for (int f = 0; f < AttendanceSummary.FIELDS; f++) {
+                        t.totals[at + f] = in.readLong();
+                    }
+                }
+                totals.put(empNum, t);
+            }
+            offset = savedOffset;
+            rowCount = savedRows;
+            prefixHash = savedHash;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Ignoring attendance state: " + e.getMessage());
+            totals.clear();
+            offset = 0;
+            rowCount = 0;
+            prefixHash = 0;
+            return false;
+        }
+    }
+
+    /**
+     * Saves the offset and totals atomically (write to a temp file, then rename).
+     *
+     * @throws IOException If the state cannot be written
+     */
+    public synchronized void save() throws IOException {
+        File tmp = new File(stateFile.getPath() + ".tmp");
+        File parent = stateFile.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(STATE_MAGIC);
+            out.writeInt(STATE_VERSION);
+            out.writeInt(calendar.getAnchorDay());
+            out.writeInt(calendar.getLengthDays());
+            out.writeLong(offset);
+            out.writeLong(rowCount);
+            out.writeLong(prefixHash);
+            out.writeInt(totals.size());
+            for (Map.Entry<String, PeriodTotals> entry : totals.entrySet()) {
+                PeriodTotals t = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeInt(t.size);
+                for (int i = 0; i < t.size; i++) {
+                    out.writeInt(t.periods[i]);
+                    for (int f = 0; f < AttendanceSummary.FIELDS; f++) {
+                        out.writeLong(t.totals[i * AttendanceSummary.FIELDS + f]);
+                    }
+                }
+            }
+        }
+        Files.move(tmp.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the complete rows appended since the last offset and updates the totals.
+     * A trailing row without a line break is left for the next call. If the file
+     * became shorter than the saved offset, or the ingested prefix changed, it was
+     * replaced, and ingestion restarts.
+     *
+     * @return Number of rows ingested
+     * @throws IOException If the CSV cannot be read
+     */
+    public synchronized int ingest() throws IOException {
+        try (FileChannel channel = FileChannel.open(csvFile.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < offset) {
+                System.err.println("Attendance file shrank; re-ingesting from the start");
+                restart();
+            } else if (offset > 0 && prefixHash(channel, offset) != prefixHash) {
+                System.err.println("Attendance file changed; re-ingesting from the start");
+                restart();
+            }
+            long end = lastLineEnd(channel, offset, size);
+            if (end <= offset) {
+                return 0;
+            }
+
+            AttendanceRowParser parser = new AttendanceRowParser();
+            HolidayCalendar holidays = HolidayCalendar.shared();
+            InputStream in = new FileRangeInputStream(channel, offset, end);
+            int rows = 0;
+            try (CSVTokenizer tokenizer = new CSVTokenizer(new InputStreamReader(in));
+                 RejectFile rejects = RejectFile.forInput(csvFile.getPath(), offset > 0)) {
+                if (offset == 0) {
+                    tokenizer.nextRow(); // header
+                }
+                String[] row;
+                while ((row = tokenizer.nextRow()) != null) {
+                    rowCount++;
+                    int code = parser.parse(row);
+                    if (code != AttendanceRowParser.OK) {
+                        rejects.reject(rowCount, AttendanceRowParser.reason(code), row);
+                        continue;
+                    }
+                    add(row[0].trim(), parser.getEpochDay(), parser.getMinuteIn(), parser.getMinuteOut(), holidays);
+                    rows++;
+                }
+            }
+            offset = end;
+            prefixHash = prefixHash(channel, end);
+            return rows;
+        }
+    }
+
+    private void restart() {
+        totals.clear();
+        offset = 0;
+        rowCount = 0;
+        prefixHash = 0;
+    }
+
+    private void add(String empNum, int epochDay, int minuteIn, int minuteOut, HolidayCalendar holidays) {
+        PeriodTotals t = totals.computeIfAbsent(empNum, k -> new PeriodTotals());
+        if (t.week == null) {
+            t.week = ShiftSchedule.shared().weekOf(empNum);
+        }
+        int at = t.slot(calendar.periodOf(epochDay)) * AttendanceSummary.FIELDS;
+        AttendanceRules.addDay(t.totals, at, t.week[AttendanceRules.dayOfWeek(epochDay)],
+                holidays.typeOf(epochDay), minuteIn, minuteOut);
+    }
+
+    /**
+     * Hashes the first and last PREFIX_BLOCK bytes of [0, end). Appending rows leaves
+     * the hash of the already ingested prefix unchanged; editing its first or last rows,
+     * or replacing the file with one at least as long, changes it.
+     */
+    private static long prefixHash(FileChannel channel, long end) throws IOException {
+        long h = PayrollLedger.hash(PayrollLedger.SEED, end);
+        h = hashRange(channel, 0, Math.min(end, PREFIX_BLOCK), h);
+        return hashRange(channel, Math.max(PREFIX_BLOCK, end - PREFIX_BLOCK), end, h);
+    }
+
+    private static long hashRange(FileChannel channel, long from, long to, long h) throws IOException {
+        if (to <= from) {
+            return h;
+        }
+        ByteBuffer buf = ByteBuffer.allocate((int) (to - from));
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, from + buf.position()) < 0) break;
+        }
+        buf.flip();
+        while (buf.hasRemaining()) {
+            h = PayrollLedger.hash(h, buf.get());
+        }
+        return h;
+    }
+
+    /**
+     * Finds the position just after the last line break in [from, size).
+     */
+    private static long lastLineEnd(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        long pos = size;
+        while (pos > from) {
+            int len = (int) Math.min(buf.capacity(), pos - from);
+            buf.clear().limit(len);
+            channel.read(buf, pos - len);
+            for (int i = len - 1; i >= 0; i--) {
+                if (buf.get(i) == '\n') {
+                    return pos - len + i + 1;
+                }
+            }
+            pos -= len;
+        }
+        return from;
+    }
+
+    // -----------------------------------------------------------------------
+    // PERIOD QUERIES
+    // -----------------------------------------------------------------------
+
+    /** @return First day of the pay period containing the date */
+    public LocalDate periodStart(LocalDate date) {
+        return calendar.start(calendar.periodOf(date));
+    }
+
+    /** @return Last day of the pay period containing the date */
+    public LocalDate periodEnd(LocalDate date) {
+        return calendar.end(calendar.periodOf(date));
+    }
+
+    /**
+     * Closes a pay period: returns every employee's totals for the period containing
+     * the date. Costs one lookup per employee.
+     *
+     * @param dateInPeriod Any date inside the pay period
+     * @return Totals by employee number, for employees with attendance in the period
+     */
+    public synchronized Map<String, AttendanceSummary> closePeriod(LocalDate dateInPeriod) {
+        int period = calendar.periodOf(dateInPeriod);
+        Map<String, AttendanceSummary> result = new LinkedHashMap<>();
+        for (Map.Entry<String, PeriodTotals> entry : totals.entrySet()) {
+            PeriodTotals t = entry.getValue();
+            int slot = t.find(period);
+            if (slot >= 0) {
+                result.put(entry.getKey(), AttendanceSummary.of(t.totals, slot * AttendanceSummary.FIELDS));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sums whole pay periods. The start must be the first day of a period and the
+     * end the last day of a period, since totals are only kept per period.
+     *
+     * @throws IllegalArgumentException If the range does not align with the pay periods
+     */
+    public synchronized AttendanceSummary summarize(String employeeNumber, LocalDate start, LocalDate end) {
+        if (!start.equals(periodStart(start)) || !end.equals(periodEnd(end))) {
+            throw new IllegalArgumentException("Pay period " + start + " to " + end
+                    + " does not align with " + calendar);
+        }
+        PeriodTotals t = totals.get(employeeNumber);
+        if (t == null) {
+            return new AttendanceSummary(0, 0);
+        }
+        int first = calendar.periodOf(start);
+        int last  = calendar.periodOf(end);
+        long[] sum = new long[AttendanceSummary.FIELDS];
+        for (int i = 0; i < t.size; i++) {
+            if (t.periods[i] >= first && t.periods[i] <= last) {
+                for (int f = 0; f < AttendanceSummary.FIELDS; f++) {
+                    sum[f] += t.totals[i * AttendanceSummary.FIELDS + f];
+                }
+            }
+        }
+        return AttendanceSummary.of(sum, 0);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String csv   = args.length > 0 ? args[0] : "data/attendance.csv";
+        String state = args.length > 1 ? args[1] : "data/attendance.state";
+
+        AttendanceIngestor ingestor = new AttendanceIngestor(csv, state);
+        boolean resumed = ingestor.restore();
+        long from = ingestor.getOffset();
+        long t0 = System.nanoTime();
+        int rows = ingestor.ingest();
+        ingestor.save();
+        System.out.printf("%s at byte %,d: ingested %,d rows up to byte %,d in %.3f s%n",
+                resumed ? "Resumed" : "Started", from, rows, ingestor.getOffset(),
+                (System.nanoTime() - t0) / 1e9);
+
+        if (args.length > 2) {
+            LocalDate date = LocalDate.parse(args[2]);
+            Map<String, AttendanceSummary> period = ingestor.closePeriod(date);
+            System.out.printf("Pay period %s to %s: %,d employees%n",
+                    ingestor.periodStart(date), ingestor.periodEnd(date), period.size());
+            for (Map.Entry<String, AttendanceSummary> entry : new TreeMap<>(period).entrySet()) {
+                AttendanceSummary s = entry.getValue();
+                System.out.printf("  %s  %6.2f hrs  %4d late mins  %6.2f overtime hrs%n", entry.getKey(),
+                        s.getHoursWorked(), s.getLateMinutes(), s.getOvertimeMinutes() / 60.0);
+            }
+        }
+    }
+}
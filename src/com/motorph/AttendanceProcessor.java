@@ -1,26 +1,53 @@
 package com.motorph;
 
+import java.io.File;
+import java.io.IOException;
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
-import java.util.List;
 
 /**
  * AttendanceProcessor.java - Handles reading attendance CSV and computing hours worked.
  * Implements FR-02: Read Attendance Logs and Compute Hours Worked.
+ * The attendance data is loaded once on first use and shared by all queries,
+ * and reloaded only when the CSV or snapshot changes on disk.
+ * If a binary snapshot (data/attendance.bin) at least as new as the CSV exists,
+ * it is memory-mapped instead of parsing the CSV.
  */
 public class AttendanceProcessor {
 
-    private static final LocalTime STANDARD_START = LocalTime.of(8, 0);  // 8:00 AM
-    private static final double HOURS_PER_DAY     = 8.0;
-    private static final double LATE_THRESHOLD_MIN = 10.0; // grace period in minutes
-    private CSVReader csvReader = new CSVReader();
+    private static final String ATTENDANCE_FILE = "data/attendance.csv";
+    private static final String SNAPSHOT_FILE   = "data/attendance.bin";
+    private static final DateTimeFormatter PERIOD_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final FileWatch<AttendanceSource> source =
+            new FileWatch<>(previous -> loadSource(), ATTENDANCE_FILE, SNAPSHOT_FILE);
+
+    /**
+     * Computes hours worked and late minutes for an employee in a single lookup.
+     *
+     * @param employeeNumber The employee ID to filter records
+     * @param startDate      Start of pay period (YYYY-MM-DD)
+     * @param endDate        End of pay period (YYYY-MM-DD)
+     * @return Hours worked and late minutes for the period
+     */
+    public AttendanceSummary computeAttendance(String employeeNumber, String startDate, String endDate) {
+        LocalDate start = LocalDate.parse(startDate, PERIOD_FMT);
+        LocalDate end   = LocalDate.parse(endDate,   PERIOD_FMT);
+        AttendanceSource attendance = getSource();
+        long t0 = PayrollMetrics.start();
+        PayrollEvents.Attendance event = PayrollEvents.beginAttendance();
+        AttendanceSummary summary = attendance.summarize(employeeNumber, start, end);
+        PayrollMetrics.record(PayrollMetrics.Stage.ATTENDANCE, t0);
+        if (event != null) {
+            event.record(employeeNumber, start, end, summary);
+        }
+        return summary;
+    }
 
     /**
      * Computes total regular hours worked by an employee for a given pay period.
-     * Reads daily time-in and time-out records from the attendance CSV.
-     * Counts only weekday records (Mon-Fri), capped at 8 hours per day.
+     * Counts every day worked, rest days and holidays included, each capped at the shift's
+     * paid minutes (see ShiftSchedule); overtime is reported separately.
      *
      * @param employeeNumber The employee ID to filter records
      * @param startDate      Start of pay period (YYYY-MM-DD)
@@ -28,48 +55,13 @@ public class AttendanceProcessor {
      * @return Total regular hours worked as a double
      */
     public double computeHoursWorked(String employeeNumber, String startDate, String endDate) {
-        List<String[]> records = csvReader.readCSV("data/attendance.csv");
-        DateTimeFormatter dateFmt = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-        DateTimeFormatter timeFmt = DateTimeFormatter.ofPattern("H:mm");
-
-        LocalDate start = LocalDate.parse(startDate, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        LocalDate end   = LocalDate.parse(endDate,   DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-
-        double totalHours = 0.0;
-
-        for (String[] row : records) {
-            // Expected CSV columns: [0]=EmpNo, [1]=LastName, [2]=FirstName,
-            //                       [3]=Date, [4]=TimeIn, [5]=TimeOut
-            if (row.length < 6) continue;
-            if (!row[0].trim().equals(employeeNumber)) continue;
-
-            try {
-                LocalDate date   = LocalDate.parse(row[3].trim(), dateFmt);
-                // Only count records within the pay period
-                if (date.isBefore(start) || date.isAfter(end)) continue;
-                // Skip weekends
-                int dow = date.getDayOfWeek().getValue(); // 1=Mon ... 7=Sun
-                if (dow >= 6) continue;
-
-                LocalTime timeIn  = LocalTime.parse(row[4].trim(), timeFmt);
-                LocalTime timeOut = LocalTime.parse(row[5].trim(), timeFmt);
-
-                // Compute raw hours worked that day
-                double dailyHours = ChronoUnit.MINUTES.between(timeIn, timeOut) / 60.0;
-                // Cap at standard 8 hours
-                dailyHours = Math.min(dailyHours, HOURS_PER_DAY);
-                totalHours += dailyHours;
-            } catch (Exception e) {
-                // Skip malformed rows
-                System.err.println("Skipping malformed attendance row: " + row[0]);
-            }
-        }
-        return totalHours;
+        return computeAttendance(employeeNumber, startDate, endDate).getHoursWorked();
     }
 
     /**
      * Computes total late/undertime minutes for an employee in a pay period.
-     * Late is defined as arriving more than 10 minutes after 8:00 AM.
+     * Late is defined as arriving after the shift's grace period
+     * (10 minutes after 8:00 AM by default).
      * Each late minute is deducted as (hourly rate / 60) from gross pay.
      *
      * @param employeeNumber The employee ID
@@ -78,35 +70,36 @@ public class AttendanceProcessor {
      * @return Total late/undertime in minutes as a double
      */
     public double computeLateMinutes(String employeeNumber, String startDate, String endDate) {
-        List<String[]> records = csvReader.readCSV("data/attendance.csv");
-        DateTimeFormatter dateFmt = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-        DateTimeFormatter timeFmt = DateTimeFormatter.ofPattern("H:mm");
-
-        LocalDate start = LocalDate.parse(startDate, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        LocalDate end   = LocalDate.parse(endDate,   DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        return computeAttendance(employeeNumber, startDate, endDate).getLateMinutes();
+    }
 
-        double totalLateMinutes = 0.0;
+    /**
+     * Loads the attendance data now instead of on the first query.
+     */
+    public void preload() {
+        getSource();
+    }
 
-        for (String[] row : records) {
-            if (row.length < 6) continue;
-            if (!row[0].trim().equals(employeeNumber)) continue;
+    /** Returns the loaded source, reloading it if the files changed (see FileWatch). */
+    private AttendanceSource getSource() {
+        return source.get();
+    }
 
+    /**
+     * Loads the attendance data, preferring an up-to-date binary snapshot over the CSV.
+     *
+     * @return Attendance source ready for pay period queries
+     */
+    public static AttendanceSource loadSource() {
+        File csv = new File(ATTENDANCE_FILE);
+        File bin = new File(SNAPSHOT_FILE);
+        if (bin.isFile() && bin.lastModified() >= csv.lastModified()) {
             try {
-                LocalDate date = LocalDate.parse(row[3].trim(), dateFmt);
-                if (date.isBefore(start) || date.isAfter(end)) continue;
-                int dow = date.getDayOfWeek().getValue();
-                if (dow >= 6) continue;
-
-                LocalTime timeIn = LocalTime.parse(row[4].trim(), timeFmt);
-                // Minutes late = timeIn - 8:00 AM (only if beyond grace period)
-                long minutesLate = ChronoUnit.MINUTES.between(STANDARD_START, timeIn);
-                if (minutesLate > LATE_THRESHOLD_MIN) {
-                    totalLateMinutes += minutesLate;
-                }
-            } catch (Exception e) {
-                System.err.println("Skipping malformed attendance row: " + row[0]);
+                return AttendanceSnapshot.open(SNAPSHOT_FILE);
+            } catch (IOException e) {
+                System.err.println("Ignoring attendance snapshot: " + e.getMessage());
             }
         }
-        return totalLateMinutes;
+        return AttendanceIndex.loadParallel(ATTENDANCE_FILE, Runtime.getRuntime().availableProcessors());
     }
 }
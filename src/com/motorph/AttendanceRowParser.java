@@ -0,0 +1,206 @@
+package com.motorph;
+
+/**
+ * AttendanceRowParser.java - Exception-free parsing of attendance rows (FR-02).
+ * Converts the "MM/dd/yyyy" date and "H:mm" log times straight to an epoch day and
+ * minutes after midnight, without DateTimeFormatter or LocalDate/LocalTime objects.
+ * Malformed rows are reported with a result code instead of a thrown exception,
+ * which keeps dirty files as fast to load as clean ones.
+ *
+ * Not thread-safe: the parsed values of the last row are held in the instance.
+ */
+public final class AttendanceRowParser {
+
+    // Result codes
+    public static final int OK              = 0;
+    public static final int TOO_FEW_COLUMNS = 1;
+    public static final int BAD_EMPLOYEE    = 2;
+    public static final int BAD_DATE        = 3;
+    public static final int BAD_TIME_IN     = 4;
+    public static final int BAD_TIME_OUT    = 5;
+
+    private static final String[] REASONS = {
+        "ok", "too few columns", "invalid employee number", "invalid date", "invalid log in time",
+        "invalid log out time"
+    };
+
+    /**
+     * Longest accepted span of a row whose time out is earlier than its time in, so
+     * ends on the next day. Longer spans are typos, e.g. 8:00 to 7:59, not overnight work.
+     */
+    public static final int MAX_OVERNIGHT_MINUTES = 16 * 60;
+
+    private static final int MINUTES_PER_DAY = AttendanceRules.MINUTES_PER_DAY;
+
+    /** Returned by parseDate() for an invalid date. */
+    public static final long INVALID_DATE = Long.MIN_VALUE;
+
+    private int employeeNumber;
+    private int epochDay;
+    private int minuteIn;
+    private int minuteOut;
+
+    /**
+     * Parses the date and log times of a row. A time out earlier than the time in is
+     * on the next day if the span is at most MAX_OVERNIGHT_MINUTES, else it is invalid.
+     * Expected CSV columns: [0]=EmpNo, [1]=LastName, [2]=FirstName,
+     *                       [3]=Date, [4]=TimeIn, [5]=TimeOut
+     *
+     * @param row CSV fields
+     * @return OK, or the code of the first invalid field
+     */
+    public int parse(String[] row) {
+        if (row.length < 6) {
+            return TOO_FEW_COLUMNS;
+        }
+        long day = parseDate(row[3]);
+        if (day == INVALID_DATE) {
+            return BAD_DATE;
+        }
+        int in = parseTime(row[4]);
+        if (in < 0) {
+            return BAD_TIME_IN;
+        }
+        int out = parseTime(row[5]);
+        if (out < 0 || out < in && out + MINUTES_PER_DAY - in > MAX_OVERNIGHT_MINUTES) {
+            return BAD_TIME_OUT;
+        }
+        epochDay = (int) day;
+        minuteIn = in;
+        minuteOut = out;
+        return OK;
+    }
+
+    /**
+     * Parses a row whose employee number must also be numeric (binary snapshots).
+     *
+     * @param row CSV fields
+     * @return OK, or the code of the first invalid field
+     */
+    public int parseNumbered(String[] row) {
+        if (row.length < 6) {
+            return TOO_FEW_COLUMNS;
+        }
+        int emp = parseEmployeeNumber(row[0]);
+        if (emp < 0) {
+            return BAD_EMPLOYEE;
+        }
+        employeeNumber = emp;
+        return parse(row);
+    }
+
+    public int getEmployeeNumber() { return employeeNumber; }
+    public int getEpochDay()       { return epochDay; }
+    public int getMinuteIn()       { return minuteIn; }
+    public int getMinuteOut()      { return minuteOut; }
+
+    /** @return Short description of a result code, e.g. "invalid date" */
+    public static String reason(int code) {
+        return code >= 0 && code < REASONS.length ? REASONS[code] : "unknown";
+    }
+
+    /**
+     * Parses an "MM/dd/yyyy" date. Surrounding spaces are ignored; the month and
+     * day must be two digits and the date must exist (no February 30).
+     *
+     * @param s Date text
+     * @return Days since 1970-01-01, or INVALID_DATE
+     */
+    public static long parseDate(String s) {
+        int from = skipSpaces(s, 0);
+        int to = trimEnd(s, from);
+        if (to - from != 10 || s.charAt(from + 2) != '/' || s.charAt(from + 5) != '/') {
+            return INVALID_DATE;
+        }
+        int month = digits(s, from, 2);
+        int day   = digits(s, from + 3, 2);
+        int year  = digits(s, from + 6, 4);
+        if (month < 1 || month > 12 || day < 1 || year < 0 || day > lengthOfMonth(year, month)) {
+            return INVALID_DATE;
+        }
+        return epochDay(year, month, day);
+    }
+
+    /**
+     * Parses an "H:mm" time (hour 0-23, two-digit minutes). Surrounding spaces are ignored.
+     *
+     * @param s Time text
+     * @return Minutes after midnight, or -1 if invalid
+     */
+    public static int parseTime(String s) {
+        int from = skipSpaces(s, 0);
+        int to = trimEnd(s, from);
+        int len = to - from;
+        if (len < 4 || len > 5 || s.charAt(to - 3) != ':') {
+            return -1;
+        }
+        int hour = digits(s, from, len - 3);
+        int minute = digits(s, to - 2, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return -1;
+        }
+        return hour * 60 + minute;
+    }
+
+    /**
+     * Parses a non-negative decimal employee number of at most nine digits.
+     *
+     * @param s Employee number text
+     * @return Employee number, or -1 if invalid
+     */
+    public static int parseEmployeeNumber(String s) {
+        int from = skipSpaces(s, 0);
+        int to = trimEnd(s, from);
+        if (to - from < 1 || to - from > 9) {
+            return -1;
+        }
+        return digits(s, from, to - from);
+    }
+
+    /** @return Value of count decimal digits at from, or -1 if any is not a digit */
+    private static int digits(String s, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static int skipSpaces(String s, int from) {
+        while (from < s.length() && s.charAt(from) <= ' ') from++;
+        return from;
+    }
+
+    private static int trimEnd(String s, int from) {
+        int to = s.length();
+        while (to > from && s.charAt(to - 1) <= ' ') to--;
+        return to;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4: case 6: case 9: case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /** Days since 1970-01-01 of a valid proleptic Gregorian date (same as LocalDate.toEpochDay). */
+    static long epochDay(int year, int month, int day) {
+        // Shift the year to start in March so the leap day is the last day of the year
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+}
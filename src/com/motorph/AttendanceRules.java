@@ -0,0 +1,234 @@
+package com.motorph;
+
+/**
+ * AttendanceRules.java - Daily attendance rules shared by every attendance source (FR-02).
+ * Works on epoch days and minutes of the day so callers need no date objects.
+ * A day's rules (shift start, shift length, unpaid break and grace period) are packed
+ * into one long, the day rule; ShiftSchedule compiles each employee's shift into a table
+ * of day rules by day of week, so applying the rules is only integer arithmetic.
+ * A shift may cross midnight: a time out earlier than the time in is on the next day.
+ * AttendanceRowParser rejects such rows when the span would exceed
+ * AttendanceRowParser.MAX_OVERNIGHT_MINUTES, so a typo is not paid as a day and a night.
+ *
+ * addDay applies every rule to one attendance row: regular minutes up to the shift's
+ * paid minutes, overtime past the shift's end, night minutes (10:00 PM to 6:00 AM), and
+ * the premium rates of rest days and special and regular holidays. A row belongs to the
+ * day of its time in.
+ */
+public final class AttendanceRules {
+
+    public static final int MINUTES_PER_DAY     = 24 * 60;
+    public static final int STANDARD_START_MIN  = 8 * 60;  // 8:00 AM
+    public static final int STANDARD_END_MIN    = 17 * 60; // 5:00 PM
+    public static final int MEAL_BREAK_MIN      = 60;      // unpaid meal break
+    public static final int MAX_MINUTES_PER_DAY = STANDARD_END_MIN - STANDARD_START_MIN - MEAL_BREAK_MIN; // 8 paid hours
+    public static final int LATE_THRESHOLD_MIN  = 10;      // grace period in minutes
+
+    // Day rule layout: start minute in bits 0-10, shift minutes in 11-21, break minutes in 22-32,
+    // grace minutes in 33-41, rest-day flag in bit 63
+    private static final int MINUTE_BITS = 11, GRACE_BITS = 9;
+    private static final int SHIFT_SHIFT = MINUTE_BITS, BREAK_SHIFT = 2 * MINUTE_BITS, GRACE_SHIFT = 3 * MINUTE_BITS;
+    private static final int MINUTE_MASK = (1 << MINUTE_BITS) - 1;
+    private static final int MAX_GRACE = (1 << GRACE_BITS) - 1;
+    private static final long REST_FLAG = 1L << 63;
+
+    // Night differential hours: 10:00 PM to 6:00 AM
+    public static final int NIGHT_START_MIN = 22 * 60;
+    public static final int NIGHT_END_MIN   = 6 * 60;
+
+    /** Pay rates are in basis points of the hourly rate: 100% = RATE_SCALE. */
+    public static final int RATE_SCALE = 10_000;
+
+    // Indexed by day type (holiday type * 2, plus 1 on a rest day): ordinary day, rest day,
+    // special holiday, special holiday on a rest day, regular holiday, regular holiday on a rest day
+    private static final int[] DAY_RATE      = {10_000, 13_000, 13_000, 15_000, 20_000, 26_000};
+    private static final int[] OVERTIME_RATE = {12_500, 16_900, 16_900, 19_500, 26_000, 33_800};
+    private static final int NIGHT_RATE_DIVISOR = 10; // night differential is 10% of the hour's rate
+
+    /** 8:00 AM to 5:00 PM with a 60-minute unpaid meal break and a 10-minute grace period. */
+    public static final long STANDARD_DAY = dayRule(STANDARD_START_MIN,
+            STANDARD_END_MIN - STANDARD_START_MIN, MEAL_BREAK_MIN, LATE_THRESHOLD_MIN);
+
+    private AttendanceRules() {
+    }
+
+    /**
+     * Packs the rules of a working day.
+     *
+     * @param startMinute  Shift start, minutes after midnight (0-1439)
+     * @param shiftMinutes Minutes from the shift's start to its end, break included (1-1440)
+     * @param breakMinutes Unpaid break within the shift (0 to shiftMinutes - 1)
+     * @param graceMinutes Minutes after the start before an arrival counts as late (0-511)
+     * @return Day rule
+     */
+    public static long dayRule(int startMinute, int shiftMinutes, int breakMinutes, int graceMinutes) {
+        if (startMinute < 0 || startMinute >= MINUTES_PER_DAY || shiftMinutes <= 0
+                || shiftMinutes > MINUTES_PER_DAY || breakMinutes < 0 || breakMinutes >= shiftMinutes
+                || graceMinutes < 0 || graceMinutes > MAX_GRACE) {
+            throw new IllegalArgumentException("Invalid day rule: start " + startMinute + ", length "
+                    + shiftMinutes + ", break " + breakMinutes + ", grace " + graceMinutes);
+        }
+        return startMinute | (long) shiftMinutes << SHIFT_SHIFT | (long) breakMinutes << BREAK_SHIFT
+                | (long) graceMinutes << GRACE_SHIFT;
+    }
+
+    public static int startMinute(long rule)  { return (int) rule & MINUTE_MASK; }
+    public static int shiftMinutes(long rule) { return (int) (rule >>> SHIFT_SHIFT) & MINUTE_MASK; }
+    public static int breakMinutes(long rule) { return (int) (rule >>> BREAK_SHIFT) & MINUTE_MASK; }
+    public static int paidMinutes(long rule)  { return shiftMinutes(rule) - breakMinutes(rule); }
+
+    /** @return Minutes from the shift start to its break, which is taken mid-shift */
+    public static int breakOffset(long rule)  { return paidMinutes(rule) / 2; }
+    public static int graceMinutes(long rule) { return (int) (rule >>> GRACE_SHIFT) & MAX_GRACE; }
+
+    /**
+     * @param rule A working day's rule
+     * @return The same shift as a rest day: worked minutes are paid at rest-day rates and
+     *         no late minutes are counted
+     */
+    public static long restDay(long rule) {
+        return rule | REST_FLAG;
+    }
+
+    /** @return true unless the rule is a rest day */
+    public static boolean isWorkday(long rule) {
+        return (rule & REST_FLAG) == 0;
+    }
+
+    /**
+     * @param epochDay Days since 1970-01-01
+     * @return Day of week, 0 = Monday ... 6 = Sunday
+     */
+    public static int dayOfWeek(int epochDay) {
+        // 1970-01-01 (epoch day 0) was a Thursday
+        return Math.floorMod(epochDay + 3, 7);
+    }
+
+    /**
+     * @param epochDay Days since 1970-01-01
+     * @return true for Monday to Friday
+     */
+    public static boolean isWeekday(int epochDay) {
+        return dayOfWeek(epochDay) < 5;
+    }
+
+    /**
+     * @return Regular minutes worked in a day, capped at the rule's paid minutes; a
+     *         time out before the time in ends on the next day
+     */
+    public static int workedMinutes(long rule, int minuteIn, int minuteOut) {
+        int span = minuteOut - minuteIn;
+        if (span < 0) {
+            span += MINUTES_PER_DAY;
+        }
+        return Math.min(span - overtimeMinutes(rule, minuteIn, span), paidMinutes(rule));
+    }
+
+    /**
+     * Overtime starts once a full shift (break included) has passed since the later of
+     * the time in and the shift start, so it is only counted past the scheduled end, and
+     * a late arrival does not turn the hours it missed into overtime. A rest day has no
+     * scheduled hours: overtime starts a full shift after the time in.
+     *
+     * @param span Minutes from the time in to the time out
+     * @return Overtime minutes of the day
+     */
+    static int overtimeMinutes(long rule, int minuteIn, int span) {
+        int early = isWorkday(rule) ? Math.max(0, -minutesAfterStart(rule, minuteIn)) : 0;
+        return Math.max(0, span - early - shiftMinutes(rule));
+    }
+
+    /**
+     * Late is defined as arriving more than the grace period after the shift start;
+     * a late arrival counts every minute after the start. Arrivals up to 12 hours
+     * either side of the start are measured across midnight.
+     *
+     * @return Late minutes for a day, or 0 if within the grace period
+     */
+    public static int lateMinutes(long rule, int minuteIn) {
+        int minutesLate = minutesAfterStart(rule, minuteIn);
+        return minutesLate > graceMinutes(rule) ? minutesLate : 0;
+    }
+
+    /** @return Minutes from the shift start to the time in, negative if early (-720 to 719) */
+    private static int minutesAfterStart(long rule, int minuteIn) {
+        int minutes = minuteIn - startMinute(rule);
+        if (minutes >= MINUTES_PER_DAY / 2) {
+            minutes -= MINUTES_PER_DAY;
+        } else if (minutes < -MINUTES_PER_DAY / 2) {
+            minutes += MINUTES_PER_DAY;
+        }
+        return minutes;
+    }
+
+    // -----------------------------------------------------------------------
+    // PREMIUM PAY
+    // -----------------------------------------------------------------------
+
+    /**
+     * Adds one attendance row to an employee's totals (layout in AttendanceSummary).
+     * Minutes up to the shift's paid minutes are regular, minutes past its end overtime
+     * (see overtimeMinutes), and the unpaid break in between is not paid. Overtime,
+     * night differential and rest-day/holiday premium are added as pay weights, minutes
+     * times rate in RATE_SCALE units, using the DOLE rates: overtime 125% on an ordinary
+     * day and 130% of the day's rate otherwise; rest days and special holidays 130%
+     * (150% together); regular holidays 200% (260% on a rest day); night minutes a
+     * further 10% of the hour's rate.
+     *
+     * @param totals    Running totals
+     * @param at        Offset of the employee's totals in the array
+     * @param rule      Day rule of the row's day of week
+     * @param holiday   HolidayCalendar type of the row's date
+     * @param minuteIn  Time in, minutes after midnight
+     * @param minuteOut Time out, minutes after midnight
+     */
+    public static void addDay(long[] totals, int at, long rule, int holiday, int minuteIn, int minuteOut) {
+        int span = minuteOut - minuteIn;
+        if (span < 0) {
+            span += MINUTES_PER_DAY;
+        }
+        int overtime = overtimeMinutes(rule, minuteIn, span);
+        int onShift = span - overtime;
+        int regular = Math.min(onShift, paidMinutes(rule));
+        boolean workday = isWorkday(rule);
+        int type = holiday * 2 + (workday ? 0 : 1);
+
+        // Night minutes of the break are unpaid; the break is placed mid-shift, counted
+        // from the shift start, and clipped to the minutes worked before overtime
+        int breakStart = breakOffset(rule) - minutesAfterStart(rule, minuteIn); // from the time in
+        int breakFrom = Math.max(0, Math.min(onShift, breakStart));
+        int breakTo = Math.max(0, Math.min(onShift, breakStart + breakMinutes(rule)));
+        int nightBreak = nightMinutes(minuteIn + breakFrom, minuteIn + breakTo);
+        int nightRegular = Math.min(regular, nightMinutes(minuteIn, minuteIn + onShift) - nightBreak);
+        int nightOvertime = nightMinutes(minuteIn + span - overtime, minuteIn + span);
+
+        totals[at + AttendanceSummary.ROWS]++;
+        totals[at + AttendanceSummary.WORKED] += regular;
+        if (workday) {
+            totals[at + AttendanceSummary.LATE] += lateMinutes(rule, minuteIn);
+        }
+        totals[at + AttendanceSummary.OVERTIME] += overtime;
+        totals[at + AttendanceSummary.NIGHT] += nightRegular + nightOvertime;
+        totals[at + AttendanceSummary.OVERTIME_WEIGHT] += (long) overtime * OVERTIME_RATE[type];
+        totals[at + AttendanceSummary.NIGHT_WEIGHT] += ((long) nightRegular * DAY_RATE[type]
+                + (long) nightOvertime * OVERTIME_RATE[type]) / NIGHT_RATE_DIVISOR;
+        totals[at + AttendanceSummary.PREMIUM_WEIGHT] += (long) regular * (DAY_RATE[type] - RATE_SCALE);
+    }
+
+    /**
+     * @param from First minute, counted from midnight of the day of the time in (0-1439)
+     * @param to   End minute, exclusive; up to one day after from
+     * @return Minutes in [from, to) between 10:00 PM and 6:00 AM
+     */
+    static int nightMinutes(int from, int to) {
+        return nightMinutesBefore(to) - nightMinutesBefore(from);
+    }
+
+    /** @return Night minutes from midnight of the first day up to the minute (0-2880) */
+    private static int nightMinutesBefore(int minute) {
+        if (minute > MINUTES_PER_DAY) {
+            return nightMinutesBefore(MINUTES_PER_DAY) + nightMinutesBefore(minute - MINUTES_PER_DAY);
+        }
+        return Math.min(minute, NIGHT_END_MIN) + Math.max(0, minute - NIGHT_START_MIN);
+    }
+}
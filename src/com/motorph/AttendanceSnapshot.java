@@ -0,0 +1,324 @@
+package com.motorph;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * AttendanceSnapshot.java - Memory-mapped binary copy of the attendance logs (FR-02).
+ *
+ * File layout (big-endian):
+ *   header  : magic "MPAT" (int), version (int), sorted record count (int), reserved (int)
+ *   records : employee number (int), epoch day (int), minute-in (short), minute-out (short)
+ *
+ * The first "sorted" records are ordered by (employee number, epoch day) and are
+ * searched with a binary search. Records appended later follow unsorted and are
+ * scanned linearly until the file is compacted. Queries read the mapped file
+ * directly, so only the pages covering the requested employee are touched.
+ *
+ * Usage: java com.motorph.AttendanceSnapshot convert|append CSV_FILE BIN_FILE
+ *        java com.motorph.AttendanceSnapshot compact BIN_FILE
+ */
+public class AttendanceSnapshot implements AttendanceSource {
+
+    private static final int MAGIC       = 0x4D504154; // "MPAT"
+    private static final int VERSION     = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 12;
+    private static final int SORTED_COUNT_OFFSET = 8;
+
+    private final ByteBuffer records;
+    private final int sortedCount;
+    private final int totalCount;
+
+    private AttendanceSnapshot(ByteBuffer records, int sortedCount, int totalCount) {
+        this.records = records;
+        this.sortedCount = sortedCount;
+        this.totalCount = totalCount;
+    }
+
+    /**
+     * Maps a snapshot file read-only.
+     *
+     * @param binPath Path to the binary snapshot
+     * @return Snapshot backed by the mapped file
+     * @throws IOException If the file is missing or not a snapshot
+     */
+    public static AttendanceSnapshot open(String binPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(binPath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid attendance snapshot size: " + binPath);
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                throw new IOException("Not an attendance snapshot: " + binPath);
+            }
+            int totalCount = (int) ((size - HEADER_SIZE) / RECORD_SIZE);
+            int sortedCount = Math.min(map.getInt(SORTED_COUNT_OFFSET), totalCount);
+            map.position(HEADER_SIZE);
+            return new AttendanceSnapshot(map.slice(), sortedCount, totalCount);
+        }
+    }
+
+    /** @return Number of attendance records in the snapshot */
+    public int size() {
+        return totalCount;
+    }
+
+    @Override
+    public AttendanceSummary summarize(String employeeNumber, LocalDate start, LocalDate end) {
+        int emp;
+        try {
+            emp = Integer.parseInt(employeeNumber);
+        } catch (NumberFormatException e) {
+            return new AttendanceSummary(0, 0);
+        }
+        int startDay = (int) start.toEpochDay();
+        int endDay   = (int) end.toEpochDay();
+
+        long[] week = ShiftSchedule.shared().weekOf(employeeNumber);
+        HolidayCalendar holidays = HolidayCalendar.shared();
+        long[] totals = new long[AttendanceSummary.FIELDS];
+
+        // Sorted region: binary search for (emp, startDay), then walk forward
+        for (int i = lowerBound(emp, startDay); i < sortedCount; i++) {
+            int off = i * RECORD_SIZE;
+            if (records.getInt(off) != emp) break;
+            int day = records.getInt(off + 4);
+            if (day > endDay) break;
+            AttendanceRules.addDay(totals, 0, week[AttendanceRules.dayOfWeek(day)], holidays.typeOf(day),
+                    records.getShort(off + 8), records.getShort(off + 10));
+        }
+
+        // Appended region: linear scan
+        for (int i = sortedCount; i < totalCount; i++) {
+            int off = i * RECORD_SIZE;
+            if (records.getInt(off) != emp) continue;
+            int day = records.getInt(off + 4);
+            if (day < startDay || day > endDay) continue;
+            AttendanceRules.addDay(totals, 0, week[AttendanceRules.dayOfWeek(day)], holidays.typeOf(day),
+                    records.getShort(off + 8), records.getShort(off + 10));
+        }
+        return AttendanceSummary.of(totals, 0);
+    }
+
+    /**
+     * Hashes every record of the employee in the period, weekends included, in any
+     * order, so it matches AttendanceIndex for the same rows (see PayrollLedger.rowHash).
+     */
+    @Override
+    public long fingerprint(String employeeNumber, LocalDate start, LocalDate end) {
+        int emp;
+        try {
+            emp = Integer.parseInt(employeeNumber);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+        int startDay = (int) start.toEpochDay();
+        int endDay   = (int) end.toEpochDay();
+        long sum = 0;
+        for (int i = lowerBound(emp, startDay); i < sortedCount; i++) {
+            int off = i * RECORD_SIZE;
+            if (records.getInt(off) != emp) break;
+            int day = records.getInt(off + 4);
+            if (day > endDay) break;
+            sum += PayrollLedger.rowHash(day, records.getShort(off + 8), records.getShort(off + 10));
+        }
+        for (int i = sortedCount; i < totalCount; i++) {
+            int off = i * RECORD_SIZE;
+            if (records.getInt(off) != emp) continue;
+            int day = records.getInt(off + 4);
+            if (day < startDay || day > endDay) continue;
+            sum += PayrollLedger.rowHash(day, records.getShort(off + 8), records.getShort(off + 10));
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the index of the first sorted record not less than (emp, day).
+     */
+    private int lowerBound(int emp, int day) {
+        int lo = 0;
+        int hi = sortedCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int off = mid * RECORD_SIZE;
+            int e = records.getInt(off);
+            if (e < emp || (e == emp && records.getInt(off + 4) < day)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // -----------------------------------------------------------------------
+    // CONVERSION
+    // -----------------------------------------------------------------------
+
+    /**
+     * Converts an attendance CSV into a new, fully sorted snapshot file.
+     *
+     * @param csvPath Path to attendance.csv
+     * @param binPath Output path of the snapshot
+     * @return Number of records written
+     * @throws IOException If the snapshot cannot be written
+     */
+    public static int convert(String csvPath, String binPath) throws IOException {
+        long[] keys = readCsvRecords(csvPath);
+        Arrays.sort(keys);
+        writeSnapshot(binPath, keys);
+        return keys.length;
+    }
+
+    /**
+     * Appends the rows of an attendance CSV (e.g., a new day's export) to an
+     * existing snapshot without rewriting it.
+     *
+     * @param csvPath Path to the CSV with the new rows
+     * @param binPath Existing snapshot to append to
+     * @return Number of records appended
+     * @throws IOException If the snapshot cannot be written
+     */
+    public static int append(String csvPath, String binPath) throws IOException {
+        if (!new File(binPath).exists()) {
+            return convert(csvPath, binPath);
+        }
+        long[] keys = readCsvRecords(csvPath);
+        try (FileChannel channel = FileChannel.open(Paths.get(binPath),
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            writeRecords(channel, keys);
+        }
+        return keys.length;
+    }
+
+    /**
+     * Re-sorts a snapshot so appended records become binary-searchable again.
+     *
+     * @param binPath Snapshot to compact in place
+     * @throws IOException If the snapshot cannot be rewritten
+     */
+    public static void compact(String binPath) throws IOException {
+        AttendanceSnapshot snapshot = open(binPath);
+        long[] keys = new long[snapshot.totalCount];
+        for (int i = 0; i < keys.length; i++) {
+            int off = i * RECORD_SIZE;
+            keys[i] = pack(snapshot.records.getInt(off), snapshot.records.getInt(off + 4),
+                    snapshot.records.getShort(off + 8), snapshot.records.getShort(off + 10));
+        }
+        Arrays.sort(keys);
+        File tmp = new File(binPath + ".tmp");
+        writeSnapshot(tmp.getPath(), keys);
+        Files.move(tmp.toPath(), Paths.get(binPath), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Reads valid attendance rows from a CSV as packed sort keys.
+     * Rows with a non-numeric employee number or bad date/time are skipped
+     * and written to the reject file.
+     */
+    private static long[] readCsvRecords(String csvPath) {
+        AttendanceRowParser parser = new AttendanceRowParser();
+        long[][] buf = {new long[1024]};
+        int[] size = {0};
+        long[] rowNumber = {0};
+
+        try (RejectFile rejects = RejectFile.forInput(csvPath, false)) {
+            new CSVReader().forEachRow(csvPath, row -> {
+                rowNumber[0]++;
+                int code = parser.parseNumbered(row);
+                if (code == AttendanceRowParser.OK && parser.getEmployeeNumber() > MAX_EMPLOYEE) {
+                    code = AttendanceRowParser.BAD_EMPLOYEE;
+                }
+                int day = parser.getEpochDay();
+                if (code == AttendanceRowParser.OK && (day < -DAY_BIAS || day >= DAY_BIAS)) {
+                    code = AttendanceRowParser.BAD_DATE; // outside the packed key range
+                }
+                if (code != AttendanceRowParser.OK) {
+                    rejects.reject(rowNumber[0], AttendanceRowParser.reason(code), row);
+                    return;
+                }
+                if (size[0] == buf[0].length) {
+                    buf[0] = Arrays.copyOf(buf[0], size[0] * 2);
+                }
+                buf[0][size[0]++] = pack(parser.getEmployeeNumber(), day,
+                        parser.getMinuteIn(), parser.getMinuteOut());
+            });
+        }
+        return Arrays.copyOf(buf[0], size[0]);
+    }
+
+    private static void writeSnapshot(String binPath, long[] sortedKeys) throws IOException {
+        Path path = Paths.get(binPath);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(sortedKeys.length).putInt(0).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            writeRecords(channel, sortedKeys);
+        }
+    }
+
+    private static void writeRecords(FileChannel channel, long[] keys) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE * 4096);
+        for (long key : keys) {
+            if (buf.remaining() < RECORD_SIZE) {
+                flush(channel, buf);
+            }
+            buf.putInt(unpackEmployee(key)).putInt(unpackDay(key))
+               .putShort((short) ((key >>> 11) & 0x7FF)).putShort((short) (key & 0x7FF));
+        }
+        flush(channel, buf);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        buf.clear();
+    }
+
+    /*
+     * Sort key layout: employee number in the top 20 bits (sign bit clear), epoch
+     * day biased into 21 bits, minute-in and minute-out in 11 bits each. Sorting
+     * the keys orders records by (employee, day, time in).
+     */
+    private static final int MAX_EMPLOYEE = (1 << 20) - 1;
+    private static final int DAY_BIAS = 1 << 20;
+
+    private static long pack(int emp, int day, int in, int out) {
+        return ((long) emp << 43) | ((long) (day + DAY_BIAS) << 22) | ((long) in << 11) | out;
+    }
+
+    private static int unpackEmployee(long key) { return (int) (key >>> 43); }
+    private static int unpackDay(long key)      { return (int) ((key >>> 22) & 0x1FFFFF) - DAY_BIAS; }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 3 && args[0].equals("convert")) {
+            System.out.println("Wrote " + convert(args[1], args[2]) + " records to " + args[2]);
+        } else if (args.length == 3 && args[0].equals("append")) {
+            System.out.println("Appended " + append(args[1], args[2]) + " records to " + args[2]);
+        } else if (args.length == 2 && args[0].equals("compact")) {
+            compact(args[1]);
+            System.out.println("Compacted " + args[1]);
+        } else {
+            System.err.println("Usage: java com.motorph.AttendanceSnapshot convert|append CSV_FILE BIN_FILE");
+            System.err.println("       java com.motorph.AttendanceSnapshot compact BIN_FILE");
+            System.exit(1);
+        }
+    }
+}
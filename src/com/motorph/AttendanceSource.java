@@ -0,0 +1,42 @@
+package com.motorph;
+
+import java.time.LocalDate;
+
+/**
+ * AttendanceSource.java - Loaded attendance data that can answer pay period queries (FR-02).
+ * Implementations are immutable once loaded and safe to share across threads.
+ */
+public interface AttendanceSource {
+
+    /**
+     * Computes hours worked and late minutes for an employee in one pass.
+     *
+     * @param employeeNumber The employee ID
+     * @param start          First day of the pay period (inclusive)
+     * @param end            Last day of the pay period (inclusive)
+     * @return Hours worked and late minutes for the period
+     */
+    AttendanceSummary summarize(String employeeNumber, LocalDate start, LocalDate end);
+
+    /**
+     * Hashes the attendance an employee's payroll for a period depends on, so a
+     * rerun can tell whether the period must be recomputed (see PayrollLedger).
+     * Sources that keep the raw rows hash the rows themselves; the default hashes
+     * the summary, which is all a totals-only source has.
+     *
+     * @param employeeNumber The employee ID
+     * @param start          First day of the pay period (inclusive)
+     * @param end            Last day of the pay period (inclusive)
+     * @return 64-bit hash of the employee's attendance in the period
+     */
+    default long fingerprint(String employeeNumber, LocalDate start, LocalDate end) {
+        AttendanceSummary s = summarize(employeeNumber, start, end);
+        long[] fields = {s.getWorkedMinutes(), s.getLateMinutes(), s.getOvertimeMinutes(), s.getNightMinutes(),
+                s.getOvertimeWeight(), s.getNightWeight(), s.getPremiumWeight()};
+        long h = PayrollLedger.SEED;
+        for (long field : fields) {
+            h = PayrollLedger.hash(h, field);
+        }
+        return h;
+    }
+}
@@ -0,0 +1,71 @@
+package com.motorph;
+
+/**
+ * AttendanceSummary.java - Minutes worked and late minutes of one employee
+ * for one pay period (FR-02). Kept in whole minutes so pay can be computed exactly.
+ * Overtime, night differential and the rest-day/holiday premium are also kept as pay
+ * weights: minutes times their pay rate, in AttendanceRules.RATE_SCALE units, since the
+ * rate of a minute depends on the day it was worked (see AttendanceRules.addDay).
+ */
+public class AttendanceSummary {
+
+    // Layout of the running totals filled by AttendanceRules.addDay
+    static final int WORKED = 0, LATE = 1, OVERTIME = 2, NIGHT = 3,
+            OVERTIME_WEIGHT = 4, NIGHT_WEIGHT = 5, PREMIUM_WEIGHT = 6, ROWS = 7;
+    static final int FIELDS = 8;
+
+    private final long workedMinutes;
+    private final long lateMinutes;
+    private final long overtimeMinutes;
+    private final long nightMinutes;
+    private final long overtimeWeight;
+    private final long nightWeight;
+    private final long premiumWeight;
+    private final long rows;
+
+    public AttendanceSummary(long workedMinutes, long lateMinutes) {
+        this(workedMinutes, lateMinutes, 0, 0, 0, 0, 0);
+    }
+
+    public AttendanceSummary(long workedMinutes, long lateMinutes, long overtimeMinutes, long nightMinutes,
+                             long overtimeWeight, long nightWeight, long premiumWeight) {
+        this(workedMinutes, lateMinutes, overtimeMinutes, nightMinutes, overtimeWeight, nightWeight,
+                premiumWeight, 0);
+    }
+
+    public AttendanceSummary(long workedMinutes, long lateMinutes, long overtimeMinutes, long nightMinutes,
+                             long overtimeWeight, long nightWeight, long premiumWeight, long rows) {
+        this.workedMinutes = workedMinutes;
+        this.lateMinutes = lateMinutes;
+        this.overtimeMinutes = overtimeMinutes;
+        this.nightMinutes = nightMinutes;
+        this.overtimeWeight = overtimeWeight;
+        this.nightWeight = nightWeight;
+        this.premiumWeight = premiumWeight;
+        this.rows = rows;
+    }
+
+    /** @return Summary of the FIELDS totals starting at an offset */
+    static AttendanceSummary of(long[] totals, int at) {
+        return new AttendanceSummary(totals[at + WORKED], totals[at + LATE], totals[at + OVERTIME],
+                totals[at + NIGHT], totals[at + OVERTIME_WEIGHT], totals[at + NIGHT_WEIGHT],
+                totals[at + PREMIUM_WEIGHT], totals[at + ROWS]);
+    }
+
+    /** @return Regular minutes worked, up to each day's shift length */
+    public long getWorkedMinutes()   { return workedMinutes; }
+    public double getHoursWorked()   { return workedMinutes / 60.0; }
+    public long getLateMinutes()     { return lateMinutes; }
+    /** @return Minutes worked beyond each day's shift length */
+    public long getOvertimeMinutes() { return overtimeMinutes; }
+    /** @return Minutes worked between 10:00 PM and 6:00 AM */
+    public long getNightMinutes()    { return nightMinutes; }
+    /** @return Overtime minutes times their overtime rate */
+    public long getOvertimeWeight()  { return overtimeWeight; }
+    /** @return Night minutes times their night differential rate */
+    public long getNightWeight()     { return nightWeight; }
+    /** @return Regular minutes on rest days and holidays times their premium rate */
+    public long getPremiumWeight()   { return premiumWeight; }
+    /** @return Attendance rows summarized */
+    public long getRows()            { return rows; }
+}
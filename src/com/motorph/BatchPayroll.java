@@ -0,0 +1,365 @@
+package com.motorph;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * BatchPayroll.java - Headless whole-company payroll run.
+ * Loads employees, attendance and deduction tables once, computes FR-02 to FR-08
+ * for every employee in parallel batches on a ForkJoin pool, and writes a payroll register CSV.
+ * Optionally renders every payslip as text, CSV or JSON files.
+ *
+ * Usage: java com.motorph.BatchPayroll START_DATE END_DATE [REGISTER_FILE] [THREADS]
+ *            [--payslips=txt|csv|json] [--payslip-dir=DIR] [--per-employee]
+ *            [--ledger[=FILE]] [--diff=FILE]
+ * With --ledger, employees whose inputs are unchanged since the period was last run
+ * reuse their recorded result (see PayrollLedger) and a diff report is written.
+ */
+public class BatchPayroll {
+
+    private static final String EMPLOYEES_FILE  = "data/employees.csv";
+    private static final DateTimeFormatter PERIOD_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int CHUNK = 1024; // employees per batch deduction computation
+
+    static final String REGISTER_HEADER = "Employee #,Last Name,First Name,Pay Period Start,"
+            + "Pay Period End,Hours Worked,Late Minutes,Overtime Hours,Night Hours,Overtime Pay,"
+            + "Night Differential,Holiday Premium,Gross Pay,SSS,PhilHealth,Pag-IBIG,"
+            + "Late Deduction,Withholding Tax,Net Pay";
+
+    private final List<Employee> employees;
+    private final EmployeeTable table; // null unless the employees are a table's rows
+    private final AttendanceSource attendanceSource;
+    private final PayrollCalculator payrollCalculator;
+
+    public BatchPayroll(List<Employee> employees, AttendanceSource attendanceSource,
+                        PayrollCalculator payrollCalculator) {
+        this(employees, null, attendanceSource, payrollCalculator);
+    }
+
+    /** Runs on every row of an employee table, reading salaries and rates from its columns. */
+    public BatchPayroll(EmployeeTable table, AttendanceSource attendanceSource,
+                        PayrollCalculator payrollCalculator) {
+        this(table.asList(), table, attendanceSource, payrollCalculator);
+    }
+
+    private BatchPayroll(List<Employee> employees, EmployeeTable table, AttendanceSource attendanceSource,
+                         PayrollCalculator payrollCalculator) {
+        this.employees = employees;
+        this.table = table;
+        this.attendanceSource = attendanceSource;
+        this.payrollCalculator = payrollCalculator;
+    }
+
+    /**
+     * Computes the payroll of every employee for a pay period.
+     * Results are returned in the same order as the employee list.
+     *
+     * @param startDate Start of pay period (YYYY-MM-DD)
+     * @param endDate   End of pay period (YYYY-MM-DD)
+     * @param threads   Number of worker threads
+     * @return One payroll result per employee
+     */
+    public List<PayrollResult> run(String startDate, String endDate, int threads) {
+        LocalDate start = LocalDate.parse(startDate, PERIOD_FMT);
+        LocalDate end   = LocalDate.parse(endDate,   PERIOD_FMT);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            int chunks = (employees.size() + CHUNK - 1) / CHUNK;
+            return pool.submit(() -> IntStream.range(0, chunks).parallel()
+                    .mapToObj(c -> computeBatch(c * CHUNK, Math.min(employees.size(), (c + 1) * CHUNK),
+                            start, end, startDate, endDate))
+                    .flatMap(Arrays::stream)
+                    .collect(Collectors.toList()))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Payroll run interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Payroll run failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Summarizes the attendance of employees from to to - 1 and computes their payroll. */
+    private PayrollResult[] computeBatch(int from, int to, LocalDate start, LocalDate end,
+                                         String startDate, String endDate) {
+        if (table == null) {
+            return computeBatch(employees.subList(from, to), start, end, startDate, endDate);
+        }
+        AttendanceSummary[] attendance = new AttendanceSummary[to - from];
+        for (int i = 0; i < attendance.length; i++) {
+            attendance[i] = summarize(table.employeeNumber(from + i), start, end);
+        }
+        return payrollCalculator.computePayrolls(table, from, to, attendance, startDate, endDate);
+    }
+
+    /** Summarizes the attendance of a batch of employees and computes their payroll. */
+    private PayrollResult[] computeBatch(List<Employee> batch, LocalDate start, LocalDate end,
+                                         String startDate, String endDate) {
+        AttendanceSummary[] attendance = new AttendanceSummary[batch.size()];
+        for (int i = 0; i < attendance.length; i++) {
+            attendance[i] = summarize(batch.get(i).getEmployeeNumber(), start, end);
+        }
+        return payrollCalculator.computePayrolls(batch, attendance, startDate, endDate);
+    }
+
+    private AttendanceSummary summarize(String empNum, LocalDate start, LocalDate end) {
+        long t0 = PayrollMetrics.start();
+        PayrollEvents.Attendance event = PayrollEvents.beginAttendance();
+        AttendanceSummary attendance = attendanceSource.summarize(empNum, start, end);
+        PayrollMetrics.record(PayrollMetrics.Stage.ATTENDANCE, t0);
+        if (event != null) {
+            event.record(empNum, start, end, attendance);
+        }
+        return attendance;
+    }
+
+    /**
+     * Computes the payroll of every employee for a pay period, recomputing only
+     * employees whose inputs changed since the period was last recorded in the
+     * ledger; the others reuse their recorded result. Recomputed results are
+     * appended to the ledger.
+     *
+     * @param startDate Start of pay period (YYYY-MM-DD)
+     * @param endDate   End of pay period (YYYY-MM-DD)
+     * @param threads   Number of worker threads
+     * @param ledger    Ledger of earlier runs
+     * @return The completed run, with one result per employee in employee order
+     * @throws IOException If the ledger cannot be read or written
+     */
+    public PayrollLedger.Rerun run(String startDate, String endDate, int threads, PayrollLedger ledger)
+            throws IOException {
+        LocalDate start = LocalDate.parse(startDate, PERIOD_FMT);
+        LocalDate end   = LocalDate.parse(endDate,   PERIOD_FMT);
+        PayrollLedger.Rerun rerun = ledger.begin(startDate, endDate);
+        long tablesHash = payrollCalculator.getTablesHash();
+        ShiftSchedule schedule = ShiftSchedule.shared();
+        long holidayHash = HolidayCalendar.shared().hash((int) start.toEpochDay(), (int) end.toEpochDay());
+
+        int n = employees.size();
+        PayrollResult[] results = new PayrollResult[n];
+        long[] inputHashes = new long[n];
+        boolean[] recomputed = new boolean[n];
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(c -> {
+                List<Employee> changed = new ArrayList<>();
+                List<Integer> changedRows = new ArrayList<>();
+                for (int i = c * CHUNK; i < Math.min(n, (c + 1) * CHUNK); i++) {
+                    Employee emp = employees.get(i);
+                    String empNum = emp.getEmployeeNumber();
+                    inputHashes[i] = PayrollLedger.inputHash(emp,
+                            attendanceSource.fingerprint(empNum, start, end),
+                            ShiftSchedule.weekHash(schedule.weekOf(empNum)), holidayHash, tablesHash);
+                    PayrollLedger.Entry before = rerun.previous(empNum);
+                    if (before != null && before.getInputHash() == inputHashes[i]) {
+                        results[i] = before.toResult(emp);
+                    } else {
+                        recomputed[i] = true;
+                        changed.add(emp);
+                        changedRows.add(i);
+                    }
+                }
+                PayrollResult[] computed = computeBatch(changed, start, end, startDate, endDate);
+                for (int j = 0; j < computed.length; j++) {
+                    results[changedRows.get(j)] = computed[j];
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Payroll run interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Payroll run failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        rerun.complete(Arrays.asList(results), inputHashes, recomputed);
+        return rerun;
+    }
+
+    /**
+     * Writes the payroll register as a CSV file, one row per employee.
+     *
+     * @param results  Computed payroll results
+     * @param filePath Output path of the register
+     * @throws IOException If the file cannot be written
+     */
+    public static void writeRegister(List<PayrollResult> results, String filePath) throws IOException {
+        File parent = new File(filePath).getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(filePath), 64 * 1024)) {
+            out.write(REGISTER_HEADER);
+            out.newLine();
+            for (PayrollResult r : results) {
+                writeRegisterRow(out, r);
+            }
+        }
+    }
+
+    /**
+     * Writes one payroll register row (without the header).
+     *
+     * @param out Register file
+     * @param r   Computed payroll of one employee and period
+     * @throws IOException If the row cannot be written
+     */
+    static void writeRegisterRow(BufferedWriter out, PayrollResult r) throws IOException {
+        Employee emp = r.getEmployee();
+        out.write(emp.getEmployeeNumber());
+        out.write(',');
+        out.write(csvField(emp.getLastName()));
+        out.write(',');
+        out.write(csvField(emp.getFirstName()));
+        out.write(',');
+        out.write(r.getStartDate());
+        out.write(',');
+        out.write(r.getEndDate());
+        out.write(',');
+        out.write(hours(r.getWorkedMinutes()));
+        out.write(',');
+        out.write(Long.toString(r.getLateMinutes()));
+        out.write(',');
+        out.write(hours(r.getOvertimeMinutes()));
+        out.write(',');
+        out.write(hours(r.getNightMinutes()));
+        long[] amounts = {r.getOvertimePay(), r.getNightDifferential(), r.getHolidayPremium(),
+                r.getGrossPay(), r.getSss(), r.getPhilHealth(), r.getPagIbig(),
+                r.getLateDeduction(), r.getWithholdingTax(), r.getNetPay()};
+        for (long amount : amounts) {
+            out.write(',');
+            out.write(Money.toPlainString(amount));
+        }
+        out.newLine();
+    }
+
+    /** @return Minutes as hours with two decimals, e.g. 2325 -> "38.75", in any locale */
+    private static String hours(long minutes) {
+        return Money.toPlainString(Money.divideRounded(minutes * 100, 60));
+    }
+
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> positional = new ArrayList<>();
+        PayslipRenderer.Format payslipFormat = null;
+        String payslipDir = "output/payslips";
+        boolean perEmployee = false;
+        String ledgerFile = null;
+        String diffFile = null;
+        for (String arg : args) {
+            if (arg.startsWith("--payslips=")) {
+                payslipFormat = PayslipRenderer.Format.fromName(arg.substring("--payslips=".length()));
+            } else if (arg.startsWith("--payslip-dir=")) {
+                payslipDir = arg.substring("--payslip-dir=".length());
+            } else if (arg.equals("--per-employee")) {
+                perEmployee = true;
+            } else if (arg.equals("--ledger")) {
+                ledgerFile = "output/payroll_ledger.csv";
+            } else if (arg.startsWith("--ledger=")) {
+                ledgerFile = arg.substring("--ledger=".length());
+            } else if (arg.startsWith("--diff=")) {
+                diffFile = arg.substring("--diff=".length());
+            } else {
+                positional.add(arg);
+            }
+        }
+        if (positional.size() < 2) {
+            System.err.println("Usage: java com.motorph.BatchPayroll START_DATE END_DATE [REGISTER_FILE] [THREADS]");
+            System.err.println("           [--payslips=txt|csv|json] [--payslip-dir=DIR] [--per-employee]");
+            System.err.println("           [--ledger[=FILE]] [--diff=FILE]");
+            System.exit(1);
+        }
+        String startDate = positional.get(0);
+        String endDate   = positional.get(1);
+        String register  = positional.size() > 2 ? positional.get(2)
+                : "output/payroll_register_" + startDate + "_" + endDate + ".csv";
+        int threads      = positional.size() > 3 ? Integer.parseInt(positional.get(3))
+                : Runtime.getRuntime().availableProcessors();
+
+        PayrollMetrics.registerMBean();
+        long t0 = System.nanoTime();
+        EmployeeTable employees = EmployeeTable.load(EMPLOYEES_FILE);
+        AttendanceSource attendance = AttendanceProcessor.loadSource();
+        PayrollCalculator calculator = new PayrollCalculator();
+        long t1 = System.nanoTime();
+
+        BatchPayroll batch = new BatchPayroll(employees, attendance, calculator);
+        PayrollLedger.Rerun rerun = null;
+        List<PayrollResult> results;
+        if (ledgerFile != null) {
+            rerun = batch.run(startDate, endDate, threads, new PayrollLedger(ledgerFile));
+            results = rerun.getResults();
+        } else {
+            results = batch.run(startDate, endDate, threads);
+        }
+        long t2 = System.nanoTime();
+
+        writeRegister(results, register);
+        int changes = 0;
+        if (rerun != null) {
+            if (diffFile == null) {
+                diffFile = "output/payroll_diff_" + startDate + "_" + endDate + ".csv";
+            }
+            changes = rerun.writeDiff(diffFile);
+        }
+        String payslipOutput = null;
+        if (payslipFormat != null) {
+            PayslipRenderer renderer = new PayslipRenderer(payslipFormat);
+            if (perEmployee) {
+                payslipOutput = payslipDir;
+                renderer.writePerEmployee(results, Paths.get(payslipDir));
+            } else {
+                payslipOutput = payslipDir + "/payslips_" + startDate + "_" + endDate
+                        + "." + payslipFormat.getExtension();
+                renderer.writeCombined(results, Paths.get(payslipOutput));
+            }
+        }
+        long t3 = System.nanoTime();
+
+        double computeSec = (t2 - t1) / 1e9;
+        double totalSec   = (t3 - t0) / 1e9;
+        System.out.println("=== BATCH PAYROLL RUN ===");
+        System.out.printf("  Pay Period   : %s to %s%n", startDate, endDate);
+        System.out.printf("  Employees    : %,d%n", results.size());
+        System.out.printf("  Threads      : %d%n", threads);
+        System.out.printf("  Load         : %.3f s%n", (t1 - t0) / 1e9);
+        System.out.printf("  Compute      : %.3f s%n", computeSec);
+        System.out.printf("  Write        : %.3f s%n", (t3 - t2) / 1e9);
+        System.out.printf("  Total        : %.3f s%n", totalSec);
+        System.out.printf("  Throughput   : %,.0f employees/sec (compute), %,.0f employees/sec (end-to-end)%n",
+                results.size() / Math.max(computeSec, 1e-9), results.size() / Math.max(totalSec, 1e-9));
+        System.out.println("  Register     : " + register);
+        if (payslipOutput != null) {
+            System.out.println("  Payslips     : " + payslipOutput);
+        }
+        if (rerun != null) {
+            System.out.printf("  Ledger       : run %d, %,d recomputed, %,d reused (%s)%n",
+                    rerun.getRun(), rerun.getRecomputedCount(), rerun.getReusedCount(), ledgerFile);
+            System.out.printf("  Changes      : %,d since the previous run (%s)%n", changes, diffFile);
+        }
+        System.out.println();
+        System.out.print(PayrollMetrics.get().getSummary());
+    }
+}
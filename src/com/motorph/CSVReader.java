@@ -1,10 +1,10 @@
 package com.motorph;
 
-import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * CSVReader.java - Utility class for reading CSV data files.
@@ -12,34 +12,69 @@ import java.util.List;
  */
 public class CSVReader {
 
+    private static final int BATCH_ROWS = 256; // rows tokenized between two clock reads
+
     /**
-     * Reads all lines from a CSV file, skipping the header row.
+     * Streams every row of a CSV file to a handler, skipping the header row.
+     * Rows are tokenized a small batch at a time, so the file is never held in memory.
      *
-     * @param filePath Path to the CSV file (e.g., "data/employees.csv")
-     * @return List of String arrays, each representing one CSV row
+     * @param filePath Path to the CSV file (e.g., "data/attendance.csv")
+     * @param handler  Callback invoked once per data row
      */
-    public List<String[]> readCSV(String filePath) {
-        List<String[]> records = new ArrayList<>();
-        String line;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+    public void forEachRow(String filePath, Consumer<String[]> handler) {
+        try (CSVTokenizer tokenizer = new CSVTokenizer(new FileReader(filePath))) {
             // Skip header row
-            br.readLine();
-
-            while ((line = br.readLine()) != null) {
-                // Split by comma, handle quoted fields
-                String[] fields = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-                // Trim whitespace from each field
-                for (int i = 0; i < fields.length; i++) {
-                    fields[i] = fields[i].trim().replace("\"", "");
-                }
-                records.add(fields);
-            }
+            tokenizer.nextRow();
+            forEachRow(tokenizer, handler);
         } catch (IOException e) {
             System.err.println("Error reading file: " + filePath);
             System.err.println(e.getMessage());
         }
+    }
 
+    /**
+     * Passes the remaining rows of a tokenizer to a handler, in order. Rows are
+     * tokenized in batches of BATCH_ROWS and then handed over, so the CSV_LOAD stage
+     * times only reading and tokenizing, not the handler's work, at two clock reads
+     * per batch.
+     *
+     * @param tokenizer Tokenizer positioned at the first row to pass
+     * @param handler   Callback invoked once per row
+     * @throws IOException If reading fails
+     */
+    static void forEachRow(CSVTokenizer tokenizer, Consumer<String[]> handler) throws IOException {
+        String[][] batch = new String[BATCH_ROWS][];
+        long readNanos = 0;
+        long t0 = PayrollMetrics.start();
+        try {
+            int n;
+            do {
+                n = 0;
+                String[] fields;
+                while (n < BATCH_ROWS && (fields = tokenizer.nextRow()) != null) {
+                    batch[n++] = fields;
+                }
+                readNanos += System.nanoTime() - t0;
+                for (int i = 0; i < n; i++) {
+                    handler.accept(batch[i]);
+                    batch[i] = null;
+                }
+                t0 = PayrollMetrics.start();
+            } while (n == BATCH_ROWS);
+        } finally {
+            PayrollMetrics.recordNanos(PayrollMetrics.Stage.CSV_LOAD, readNanos);
+        }
+    }
+
+    /**
+     * Reads all lines from a CSV file, skipping the header row.
+     *
+     * @param filePath Path to the CSV file (e.g., "data/employees.csv")
+     * @return List of String arrays, each representing one CSV row
+     */
+    public List<String[]> readCSV(String filePath) {
+        List<String[]> records = new ArrayList<>();
+        forEachRow(filePath, records::add);
         return records;
     }
 
@@ -51,31 +86,32 @@ public class CSVReader {
      */
     public List<Employee> loadEmployees(String filePath) {
         List<Employee> employees = new ArrayList<>();
-        List<String[]> records = readCSV(filePath);
+        PayrollEvents.EmployeeLoad event = PayrollEvents.beginEmployeeLoad();
+        long[] rows = {0, 0}; // scanned, rejected
 
-        for (String[] fields : records) {
+        forEachRow(filePath, fields -> {
+            rows[0]++;
             try {
-                // Adjust field indexes to match actual MotorPH CSV column order
-                String empNum    = fields[0];
-                String lastName  = fields[1];
-                String firstName = fields[2];
-                String birthday  = fields[3];
-                String sss       = fields[6];
-                String philHealth= fields[7];
-                String tin       = fields[8];
-                String pagIbig   = fields[9];
-                String status    = fields[10];
-                String position  = fields[11];
-                double salary    = Double.parseDouble(fields[13].replace(",", ""));
-                double hourlyRate = Double.parseDouble(fields[18].replace(",", ""));
-
-                employees.add(new Employee(empNum, lastName, firstName, birthday,
-                        sss, philHealth, tin, pagIbig, status, position, salary, hourlyRate));
+                // Field indexes follow the MotorPH employees.csv column order
+                employees.add(new Employee(fields[0], fields[1], fields[2], fields[3],
+                        fields[4], fields[5], fields[6], fields[7], fields[8], fields[9],
+                        fields[10], fields[11], fields[12],
+                        Money.parse(fields[13]), Money.parse(fields[14]), Money.parse(fields[15]),
+                        Money.parse(fields[16]), Money.parse(fields[17]), Money.parse(fields[18])));
+            } catch (ArrayIndexOutOfBoundsException e) {
+                rows[1]++;
+                PayrollMetrics.malformedRow(filePath, "too few columns");
+                System.err.println("Skipping invalid record: " + String.join(",", fields));
             } catch (Exception e) {
+                rows[1]++;
+                PayrollMetrics.malformedRow(filePath, "invalid amount");
                 System.err.println("Skipping invalid record: " + String.join(",", fields));
             }
-        }
+        });
 
+        if (event != null) {
+            event.record(filePath, rows[0], rows[1], employees.size());
+        }
         return employees;
     }
 }
@@ -0,0 +1,149 @@
+package com.motorph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSVTokenizer.java - Streaming RFC 4180 tokenizer used by CSVReader.
+ * Reads a character stream one row at a time with a small state machine:
+ * quoted fields may contain commas, line breaks and doubled quotes ("").
+ * Whitespace around unquoted fields and outside quotes is trimmed.
+ */
+public class CSVTokenizer implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Parser states
+    private static final int FIELD_START   = 0; // before the first char of a field
+    private static final int UNQUOTED      = 1; // inside an unquoted field
+    private static final int QUOTED        = 2; // inside a quoted field
+    private static final int QUOTE_IN_QUOTED = 3; // saw a quote inside a quoted field
+    private static final int AFTER_QUOTED  = 4; // closing quote seen, waiting for comma
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private boolean skipLineFeed;
+
+    private final StringBuilder field = new StringBuilder(64);
+    private final List<String> fields = new ArrayList<>();
+    private int lastNonSpace; // length of field without trailing whitespace
+
+    public CSVTokenizer(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next row from the stream. Blank lines are skipped.
+     *
+     * @return Fields of the next row, or null at end of stream
+     * @throws IOException If the underlying reader fails
+     */
+    public String[] nextRow() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        lastNonSpace = 0;
+        int state = FIELD_START;
+        boolean sawAnything = false;
+
+        while (true) {
+            if (pos == limit) {
+                limit = reader.read(buffer, 0, BUFFER_SIZE);
+                pos = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    if (!sawAnything) {
+                        return null;
+                    }
+                    endField(state);
+                    return toRow();
+                }
+            }
+            char c = buffer[pos++];
+
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (c == '\n') continue;
+            }
+
+            if (state == QUOTED) {
+                if (c == '"') {
+                    state = QUOTE_IN_QUOTED;
+                } else {
+                    field.append(c);
+                }
+                continue;
+            }
+
+            if (state == QUOTE_IN_QUOTED) {
+                if (c == '"') {
+                    // Escaped quote ("") inside a quoted field
+                    field.append('"');
+                    state = QUOTED;
+                    continue;
+                }
+                state = AFTER_QUOTED;
+                // fall through to handle c as the char after the closing quote
+            }
+
+            if (c == '\r' || c == '\n') {
+                skipLineFeed = (c == '\r');
+                if (!sawAnything) {
+                    continue; // blank line
+                }
+                endField(state);
+                return toRow();
+            }
+
+            sawAnything = true;
+            if (c == ',') {
+                endField(state);
+                state = FIELD_START;
+                continue;
+            }
+
+            switch (state) {
+                case FIELD_START:
+                    if (c == '"') {
+                        state = QUOTED;
+                    } else if (c != ' ' && c != '\t') {
+                        field.append(c);
+                        lastNonSpace = field.length();
+                        state = UNQUOTED;
+                    }
+                    break;
+                case UNQUOTED:
+                    field.append(c);
+                    if (c != ' ' && c != '\t') {
+                        lastNonSpace = field.length();
+                    }
+                    break;
+                default:
+                    // AFTER_QUOTED: ignore anything between the closing quote and the comma
+                    break;
+            }
+        }
+    }
+
+    private void endField(int state) {
+        if (state == UNQUOTED) {
+            field.setLength(lastNonSpace);
+        }
+        fields.add(field.toString());
+        field.setLength(0);
+        lastNonSpace = 0;
+    }
+
+    private String[] toRow() {
+        return fields.toArray(new String[0]);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -1,120 +1,43 @@
 package com.motorph;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * DeductionCalculator.java - Computes all statutory deductions.
  * Implements FR-04 (SSS), FR-05 (PhilHealth), FR-06 (Pag-IBIG), FR-07 (Withholding Tax).
- * Loads SSS and Tax lookup tables dynamically from CSVs.
+ * SSS and Tax lookup tables come from the shared compiled DeductionTables, so
+ * creating a calculator does not re-parse the CSVs unless they changed on disk.
+ * All amounts are long centavos (see Money).
  */
 public class DeductionCalculator {
 
-    // SSS Table: index 0 = maxSalary (exclusive boundary), index 1 = contribution
-    private List<double[]> sssTable;
-    
-    // Tax Table: index 0 = minSalary (inclusive), index 1 = baseTax, index 2 = additionalRate, index 3 = excessOver
-    private List<double[]> taxTable;
+    private static final long PHILHEALTH_MIN_BASE = 10_000 * Money.ONE_PESO;
+    private static final long PHILHEALTH_MAX_BASE = 100_000 * Money.ONE_PESO;
+    private static final long PHILHEALTH_RATE_BP  = 250;  // 2.5% employee share
+    private static final long PAGIBIG_RATE_BP     = 200;  // 2%
+    private static final long PAGIBIG_CAP         = 100 * Money.ONE_PESO;
+
+    private final DeductionTables tables;
 
     public DeductionCalculator() {
-        sssTable = new ArrayList<>();
-        taxTable = new ArrayList<>();
-        loadTables();
+        this(DeductionTables.shared());
     }
 
-    private void loadTables() {
-        CSVReader reader = new CSVReader();
-        
-        // Load SSS
-        List<String[]> sssData = reader.readCSV("data/sss.csv");
-        for (String[] row : sssData) {
-            if (row.length < 4) continue;
-            try {
-                String maxStr = row[2].trim().replace("\"", "").replace(",", "");
-                double maxVal;
-                
-                if (maxStr.isEmpty() && row[0].contains("Below")) {
-                    String[] parts = row[0].replace("\"", "").replace(",", "").split(" ");
-                    maxVal = Double.parseDouble(parts[1]);
-                } else if (maxStr.equalsIgnoreCase("Over")) {
-                    maxVal = Double.MAX_VALUE;
-                } else {
-                    maxVal = Double.parseDouble(maxStr);
-                }
-                
-                double contribution = Double.parseDouble(row[3].trim().replace("\"", "").replace(",", ""));
-                sssTable.add(new double[]{maxVal, contribution});
-            } catch (Exception e) {
-                // Ignore parsing errors for malformed or header rows
-            }
-        }
-        
-        // Load Tax
-        List<String[]> taxData = reader.readCSV("data/tax.csv");
-        for (String[] row : taxData) {
-            if (row.length < 2) continue;
-            try {
-                String rangeStr = row[0].toLowerCase().replace(",", "").replace("\"", "");
-                String taxRuleStr = row[1].toLowerCase().replace(",", "").replace("\"", "");
-                
-                double minSalary = 0;
-                double baseTax = 0;
-                double additionalRate = 0;
-                double excessOver = 0;
-                
-                if (rangeStr.contains("and below")) {
-                    minSalary = 0;
-                } else if (rangeStr.contains("to below")) {
-                    minSalary = Double.parseDouble(rangeStr.split(" to ")[0].trim());
-                } else if (rangeStr.contains("and above")) {
-                    minSalary = Double.parseDouble(rangeStr.split(" and ")[0].trim());
-                }
-                
-                if (taxRuleStr.contains("no withholding tax")) {
-                    baseTax = 0; 
-                    additionalRate = 0;
-                    excessOver = 0;
-                } else {
-                    String[] parts = taxRuleStr.split("plus");
-                    if (parts.length > 1) {
-                        baseTax = Double.parseDouble(parts[0].trim());
-                        String[] rateParts = parts[1].split("% in excess of");
-                        additionalRate = Double.parseDouble(rateParts[0].trim()) / 100.0;
-                        excessOver = Double.parseDouble(rateParts[1].trim());
-                    } else {
-                        String[] rateParts = taxRuleStr.split("% in excess of");
-                        baseTax = 0;
-                        additionalRate = Double.parseDouble(rateParts[0].trim()) / 100.0;
-                        excessOver = Double.parseDouble(rateParts[1].trim());
-                    }
-                }
-                taxTable.add(new double[]{minSalary, baseTax, additionalRate, excessOver});
-            } catch (Exception e) {
-                 // Ignore
-            }
-        }
-        
-        // Sort tax table descending by minSalary to evaluate top-down
-        taxTable.sort((a, b) -> Double.compare(b[0], a[0]));
+    public DeductionCalculator(DeductionTables tables) {
+        this.tables = tables;
+    }
+
+    /** @return Hash of the SSS and tax tables this calculator uses */
+    public long getTablesHash() {
+        return tables.getContentHash();
     }
 
     /**
      * FR-04: Computes SSS deduction using the loaded SSS Contribution Table.
      *
-     * @param grossMonthlySalary Employee's gross monthly salary
-     * @return Employee SSS contribution amount
+     * @param grossMonthlySalary Employee's gross monthly salary in centavos
+     * @return Employee SSS contribution in centavos
      */
-    public double computeSSS(double grossMonthlySalary) {
-        if (sssTable.isEmpty()) {
-            return 0; // Fallback if table failed to load
-        }
-        for (double[] bracket : sssTable) {
-            if (grossMonthlySalary < bracket[0]) {
-                return bracket[1];
-            }
-        }
-        // If it exceeds the maximum mapped value
-        return sssTable.get(sssTable.size() - 1)[1];
+    public long computeSSS(long grossMonthlySalary) {
+        return tables.sss(grossMonthlySalary);
     }
 
     /**
@@ -123,12 +46,12 @@ public class DeductionCalculator {
      * Minimum monthly salary base: PHP 10,000. Maximum: PHP 100,000.
      * Note: Explicitly defined by system requirements (FR-05).
      *
-     * @param basicMonthlySalary Employee's basic monthly salary
-     * @return Employee PhilHealth contribution
+     * @param basicMonthlySalary Employee's basic monthly salary in centavos
+     * @return Employee PhilHealth contribution in centavos
      */
-    public double computePhilHealth(double basicMonthlySalary) {
-        double salary = Math.max(10000, Math.min(basicMonthlySalary, 100000));
-        return salary * 0.025;
+    public long computePhilHealth(long basicMonthlySalary) {
+        long salary = Math.max(PHILHEALTH_MIN_BASE, Math.min(basicMonthlySalary, PHILHEALTH_MAX_BASE));
+        return Money.percent(salary, PHILHEALTH_RATE_BP);
     }
 
     /**
@@ -136,35 +59,88 @@ public class DeductionCalculator {
      * Rate: 2% of monthly salary, capped at PHP 100.00 employee share.
      * Note: Explicitly defined by system requirements (FR-06).
      *
-     * @param grossMonthlySalary Employee's gross monthly salary
-     * @return Employee Pag-IBIG contribution
+     * @param grossMonthlySalary Employee's gross monthly salary in centavos
+     * @return Employee Pag-IBIG contribution in centavos
      */
-    public double computePagIbig(double grossMonthlySalary) {
-        return Math.min(grossMonthlySalary * 0.02, 100.0);
+    public long computePagIbig(long grossMonthlySalary) {
+        return Math.min(Money.percent(grossMonthlySalary, PAGIBIG_RATE_BP), PAGIBIG_CAP);
     }
 
     /**
      * FR-07: Computes withholding tax using loaded BIR monthly tax table.
      * Taxable income = Gross Pay - SSS - PhilHealth - Pag-IBIG - Late Deductions.
      *
-     * @param taxableIncome Gross pay minus non-taxable deductions
-     * @return Monthly withholding tax amount
+     * @param taxableIncome Gross pay minus non-taxable deductions, in centavos
+     * @return Monthly withholding tax in centavos
+     */
+    public long computeWithholdingTax(long taxableIncome) {
+        return tables.withholdingTax(taxableIncome);
+    }
+
+    /**
+     * Computes the tax due on a year's taxable income by annualizing the monthly
+     * table: the tax on the average month, times twelve.
+     *
+     * @param annualTaxableIncome Sum of the year's taxable income, in centavos
+     * @return Annual tax due in centavos
+     */
+    public long computeAnnualTax(long annualTaxableIncome) {
+        return 12 * tables.withholdingTax(Money.divideRounded(annualTaxableIncome, 12));
+    }
+
+    // ---------------- BATCH VARIANTS ----------------
+    // Same results as the single-value methods, computed over the first count
+    // entries of primitive arrays in one loop each (e.g., a whole payroll register).
+
+    /**
+     * FR-04 for many salaries at once.
+     *
+     * @param grossMonthlySalaries Salaries in centavos
+     * @param sss                  Receives each SSS contribution in centavos
+     * @param count                Number of entries to compute
      */
-    public double computeWithholdingTax(double taxableIncome) {
-        if (taxTable.isEmpty()) {
-            return 0;
+    public void computeSSS(long[] grossMonthlySalaries, long[] sss, int count) {
+        tables.sss(grossMonthlySalaries, sss, count);
+    }
+
+    /**
+     * FR-05 for many salaries at once.
+     *
+     * @param basicMonthlySalaries Salaries in centavos
+     * @param philHealth           Receives each PhilHealth contribution in centavos
+     * @param count                Number of entries to compute
+     */
+    public void computePhilHealth(long[] basicMonthlySalaries, long[] philHealth, int count) {
+        DeductionTables.checkBatch(basicMonthlySalaries, philHealth, count);
+        for (int i = 0; i < count; i++) {
+            long salary = Math.max(PHILHEALTH_MIN_BASE, Math.min(basicMonthlySalaries[i], PHILHEALTH_MAX_BASE));
+            // The clamped base is positive, so HALF_UP needs no sign test
+            philHealth[i] = (salary * PHILHEALTH_RATE_BP + 5_000) / 10_000;
         }
-        
-        for (double[] bracket : taxTable) {
-            if (taxableIncome >= bracket[0]) {
-                double baseTax = bracket[1];
-                double additionalRate = bracket[2];
-                double excessOver = bracket[3];
-                
-                double excess = Math.max(0, taxableIncome - excessOver);
-                return baseTax + (excess * additionalRate);
-            }
+    }
+
+    /**
+     * FR-06 for many salaries at once.
+     *
+     * @param grossMonthlySalaries Salaries in centavos
+     * @param pagIbig              Receives each Pag-IBIG contribution in centavos
+     * @param count                Number of entries to compute
+     */
+    public void computePagIbig(long[] grossMonthlySalaries, long[] pagIbig, int count) {
+        DeductionTables.checkBatch(grossMonthlySalaries, pagIbig, count);
+        for (int i = 0; i < count; i++) {
+            pagIbig[i] = Math.min(Money.percent(grossMonthlySalaries[i], PAGIBIG_RATE_BP), PAGIBIG_CAP);
         }
-        return 0;
+    }
+
+    /**
+     * FR-07 for many taxable incomes at once.
+     *
+     * @param taxableIncomes Taxable incomes in centavos
+     * @param withholdingTax Receives each monthly withholding tax in centavos
+     * @param count          Number of entries to compute
+     */
+    public void computeWithholdingTax(long[] taxableIncomes, long[] withholdingTax, int count) {
+        tables.withholdingTax(taxableIncomes, withholdingTax, count);
     }
 }
@@ -0,0 +1,297 @@
+package com.motorph;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * DeductionTables.java - Compiled SSS (FR-04) and BIR withholding tax (FR-07) tables.
+ * The CSV tables are parsed once into sorted primitive arrays and looked up by
+ * binary search. Instances are immutable and safe to share across threads; the
+ * shared instance is swapped atomically only when a table file changes on disk.
+ */
+public final class DeductionTables {
+
+    private static final String SSS_FILE = "data/sss.csv";
+    private static final String TAX_FILE = "data/tax.csv";
+
+    private static final AtomicReference<DeductionTables> SHARED = new AtomicReference<>();
+
+    // SSS brackets sorted ascending by upper bound (exclusive), in centavos
+    private final long[] sssMaxSalary;
+    private final long[] sssContribution;
+
+    // Tax brackets sorted ascending by lower bound (inclusive); amounts in
+    // centavos, rates in basis points (20% = 2000)
+    private final long[] taxMinSalary;
+    private final long[] taxBase;
+    private final long[] taxRate;
+    private final long[] taxExcessOver;
+
+    // Hash of the compiled brackets, recorded with ledger results (see PayrollLedger)
+    private final long contentHash;
+
+    // Fingerprint of the files the tables were compiled from
+    private final long sssModified;
+    private final long sssLength;
+    private final long taxModified;
+    private final long taxLength;
+
+    private DeductionTables(List<long[]> sssRows, List<long[]> taxRows,
+                            File sssFile, File taxFile) {
+        sssRows.sort((a, b) -> Long.compare(a[0], b[0]));
+        taxRows.sort((a, b) -> Long.compare(a[0], b[0]));
+
+        sssMaxSalary = new long[sssRows.size()];
+        sssContribution = new long[sssRows.size()];
+        for (int i = 0; i < sssRows.size(); i++) {
+            sssMaxSalary[i] = sssRows.get(i)[0];
+            sssContribution[i] = sssRows.get(i)[1];
+        }
+
+        taxMinSalary = new long[taxRows.size()];
+        taxBase = new long[taxRows.size()];
+        taxRate = new long[taxRows.size()];
+        taxExcessOver = new long[taxRows.size()];
+        for (int i = 0; i < taxRows.size(); i++) {
+            long[] row = taxRows.get(i);
+            taxMinSalary[i] = row[0];
+            taxBase[i] = row[1];
+            taxRate[i] = row[2];
+            taxExcessOver[i] = row[3];
+        }
+
+        long h = PayrollLedger.SEED;
+        for (long[] column : new long[][]{sssMaxSalary, sssContribution,
+                taxMinSalary, taxBase, taxRate, taxExcessOver}) {
+            h = PayrollLedger.hash(h, column.length);
+            for (long value : column) {
+                h = PayrollLedger.hash(h, value);
+            }
+        }
+        contentHash = h;
+
+        sssModified = sssFile.lastModified();
+        sssLength = sssFile.length();
+        taxModified = taxFile.lastModified();
+        taxLength = taxFile.length();
+    }
+
+    /**
+     * Returns the shared tables, recompiling them only if sss.csv or tax.csv
+     * changed on disk since they were last loaded.
+     *
+     * @return Current compiled tables
+     */
+    public static DeductionTables shared() {
+        DeductionTables current = SHARED.get();
+        if (current != null && !current.isStale()) {
+            return current;
+        }
+        synchronized (SHARED) {
+            current = SHARED.get();
+            if (current == null || current.isStale()) {
+                current = load(SSS_FILE, TAX_FILE);
+                SHARED.set(current);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Parses and compiles the SSS and tax tables from CSV files.
+     *
+     * @param sssPath Path to sss.csv
+     * @param taxPath Path to tax.csv
+     * @return Compiled tables
+     */
+    public static DeductionTables load(String sssPath, String taxPath) {
+        CSVReader reader = new CSVReader();
+
+        // Load SSS: index 0 = maxSalary (exclusive boundary), index 1 = contribution
+        List<long[]> sssRows = new ArrayList<>();
+        for (String[] row : reader.readCSV(sssPath)) {
+            if (row.length < 4) {
+                PayrollMetrics.malformedRow(sssPath, "too few columns");
+                System.err.println("Skipping malformed SSS bracket: " + String.join(",", row));
+                continue;
+            }
+            try {
+                String maxStr = row[2].trim();
+                long maxVal;
+
+                if (maxStr.isEmpty() && row[0].contains("Below")) {
+                    String[] parts = row[0].split(" ");
+                    maxVal = Money.parse(parts[1]);
+                } else if (maxStr.equalsIgnoreCase("Over")) {
+                    maxVal = Long.MAX_VALUE;
+                } else {
+                    maxVal = Money.parse(maxStr);
+                }
+
+                long contribution = Money.parse(row[3]);
+                sssRows.add(new long[]{maxVal, contribution});
+            } catch (Exception e) {
+                PayrollMetrics.malformedRow(sssPath, "invalid SSS bracket");
+                System.err.println("Skipping malformed SSS bracket: " + String.join(",", row));
+            }
+        }
+
+        // Load Tax: index 0 = minSalary (inclusive), 1 = baseTax, 2 = additionalRate, 3 = excessOver
+        List<long[]> taxRows = new ArrayList<>();
+        for (String[] row : reader.readCSV(taxPath)) {
+            if (row.length < 2) {
+                PayrollMetrics.malformedRow(taxPath, "too few columns");
+                System.err.println("Skipping malformed tax bracket: " + String.join(",", row));
+                continue;
+            }
+            try {
+                String rangeStr = row[0].toLowerCase().replace(",", "");
+                String taxRuleStr = row[1].toLowerCase().replace(",", "");
+
+                long minSalary = 0;
+                long baseTax = 0;
+                long additionalRate = 0; // basis points
+                long excessOver = 0;
+
+                if (rangeStr.contains("and below")) {
+                    minSalary = 0;
+                } else if (rangeStr.contains("to below")) {
+                    minSalary = Money.parse(rangeStr.split(" to ")[0]);
+                } else if (rangeStr.contains("and above")) {
+                    minSalary = Money.parse(rangeStr.split(" and ")[0]);
+                }
+
+                if (!taxRuleStr.contains("no withholding tax")) {
+                    String[] parts = taxRuleStr.split("plus");
+                    if (parts.length > 1) {
+                        baseTax = Money.parse(parts[0]);
+                        String[] rateParts = parts[1].split("% in excess of");
+                        additionalRate = Money.parse(rateParts[0]); // "25" -> 2500 bp
+                        excessOver = Money.parse(rateParts[1]);
+                    } else {
+                        String[] rateParts = taxRuleStr.split("% in excess of");
+                        additionalRate = Money.parse(rateParts[0]);
+                        excessOver = Money.parse(rateParts[1]);
+                    }
+                }
+                taxRows.add(new long[]{minSalary, baseTax, additionalRate, excessOver});
+            } catch (Exception e) {
+                PayrollMetrics.malformedRow(taxPath, "invalid tax bracket");
+                System.err.println("Skipping malformed tax bracket: " + String.join(",", row));
+            }
+        }
+
+        return new DeductionTables(sssRows, taxRows, new File(sssPath), new File(taxPath));
+    }
+
+    /** @return Hash of the compiled SSS and tax brackets; equal tables give equal hashes */
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    private boolean isStale() {
+        File sss = new File(SSS_FILE);
+        File tax = new File(TAX_FILE);
+        return sss.lastModified() != sssModified || sss.length() != sssLength
+                || tax.lastModified() != taxModified || tax.length() != taxLength;
+    }
+
+    /**
+     * Looks up the SSS contribution of the first bracket whose upper bound
+     * exceeds the salary. Salaries above every bracket use the last bracket.
+     *
+     * @param grossMonthlySalary Employee's gross monthly salary in centavos
+     * @return Employee SSS contribution in centavos, or 0 if the table is empty
+     */
+    public long sss(long grossMonthlySalary) {
+        int n = sssMaxSalary.length;
+        if (n == 0) {
+            return 0; // Fallback if table failed to load
+        }
+        // First index with maxSalary > salary
+        return sssContribution[Math.min(countAtOrBelow(sssMaxSalary, grossMonthlySalary), n - 1)];
+    }
+
+    /**
+     * Batch form of sss(long): looks up count salaries in one loop over the arrays.
+     *
+     * @param grossMonthlySalaries Salaries in centavos
+     * @param contributions        Receives the SSS contribution of each salary
+     * @param count                Number of leading entries to compute
+     */
+    public void sss(long[] grossMonthlySalaries, long[] contributions, int count) {
+        checkBatch(grossMonthlySalaries, contributions, count);
+        long[] bounds = sssMaxSalary;
+        long[] values = sssContribution;
+        int last = bounds.length - 1;
+        if (last < 0) {
+            Arrays.fill(contributions, 0, count, 0L);
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            contributions[i] = values[Math.min(countAtOrBelow(bounds, grossMonthlySalaries[i]), last)];
+        }
+    }
+
+    /**
+     * Computes withholding tax from the highest bracket whose lower bound
+     * does not exceed the taxable income.
+     *
+     * @param taxableIncome Gross pay minus non-taxable deductions, in centavos
+     * @return Monthly withholding tax in centavos
+     */
+    public long withholdingTax(long taxableIncome) {
+        // Last index with minSalary <= income
+        return taxInBracket(countAtOrBelow(taxMinSalary, taxableIncome) - 1, taxableIncome);
+    }
+
+    private long taxInBracket(int i, long taxableIncome) {
+        if (i < 0) {
+            return 0;
+        }
+        long excess = Math.max(0, taxableIncome - taxExcessOver[i]);
+        return taxBase[i] + Money.percent(excess, taxRate[i]);
+    }
+
+    /**
+     * Batch form of withholdingTax(long): computes count taxes in one loop over the arrays.
+     *
+     * @param taxableIncomes Taxable incomes in centavos
+     * @param taxes          Receives the withholding tax of each income
+     * @param count          Number of leading entries to compute
+     */
+    public void withholdingTax(long[] taxableIncomes, long[] taxes, int count) {
+        checkBatch(taxableIncomes, taxes, count);
+        long[] bounds = taxMinSalary;
+        for (int i = 0; i < count; i++) {
+            long income = taxableIncomes[i];
+            taxes[i] = taxInBracket(countAtOrBelow(bounds, income) - 1, income);
+        }
+    }
+
+    /** Number of bounds less than or equal to x, for bounds sorted ascending (binary search). */
+    private static int countAtOrBelow(long[] bounds, long x) {
+        int lo = 0;
+        int hi = bounds.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (bounds[mid] <= x) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** Rejects a batch count that does not fit the input or output array. */
+    static void checkBatch(long[] in, long[] out, int count) {
+        if (count < 0 || count > in.length || count > out.length) {
+            throw new IllegalArgumentException("Batch of " + count + " does not fit arrays of "
+                    + in.length + " and " + out.length);
+        }
+    }
+}
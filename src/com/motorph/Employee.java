@@ -10,31 +10,54 @@ public class Employee {
     private String lastName;
     private String firstName;
     private String birthday;
+    private String address;
+    private String phoneNumber;
     private String sssNumber;
     private String philHealthNumber;
     private String tin;
     private String pagIbigNumber;
     private String status;       // Regular / Probationary
     private String position;
-    private double basicMonthlySalary;
-    private double hourlyRate;
+    private String immediateSupervisor;
+    private long basicMonthlySalary; // centavos
+    private long hourlyRate;         // centavos
+    private long riceSubsidy;        // centavos
+    private long phoneAllowance;     // centavos
+    private long clothingAllowance;  // centavos
+    private long grossSemiMonthlyRate; // centavos
 
-    // Constructor
-    public Employee(String employeeNumber, String lastName, String firstName,
-                    String birthday, String sssNumber, String philHealthNumber,
-                    String tin, String pagIbigNumber, String status,
-                    String position, double basicMonthlySalary, double hourlyRate) {
+    /** For views that supply every value through the getters (see EmployeeTable). */
+    protected Employee() {
+    }
+
+    /**
+     * Creates an employee with every column of employees.csv, in file order.
+     * Amounts are in centavos.
+     */
+    public Employee(String employeeNumber, String lastName, String firstName, String birthday,
+                    String address, String phoneNumber, String sssNumber, String philHealthNumber,
+                    String tin, String pagIbigNumber, String status, String position,
+                    String immediateSupervisor, long basicMonthlySalary, long riceSubsidy,
+                    long phoneAllowance, long clothingAllowance, long grossSemiMonthlyRate,
+                    long hourlyRate) {
         this.employeeNumber = employeeNumber;
         this.lastName = lastName;
         this.firstName = firstName;
         this.birthday = birthday;
+        this.address = address;
+        this.phoneNumber = phoneNumber;
         this.sssNumber = sssNumber;
         this.philHealthNumber = philHealthNumber;
         this.tin = tin;
         this.pagIbigNumber = pagIbigNumber;
         this.status = status;
         this.position = position;
+        this.immediateSupervisor = immediateSupervisor;
         this.basicMonthlySalary = basicMonthlySalary;
+        this.riceSubsidy = riceSubsidy;
+        this.phoneAllowance = phoneAllowance;
+        this.clothingAllowance = clothingAllowance;
+        this.grossSemiMonthlyRate = grossSemiMonthlyRate;
         this.hourlyRate = hourlyRate;
     }
 
@@ -43,22 +66,31 @@ public class Employee {
     public String getLastName()       { return lastName; }
     public String getFirstName()      { return firstName; }
     public String getBirthday()       { return birthday; }
+    public String getAddress()        { return address; }
+    public String getPhoneNumber()    { return phoneNumber; }
     public String getSssNumber()      { return sssNumber; }
     public String getPhilHealthNumber() { return philHealthNumber; }
     public String getTin()            { return tin; }
     public String getPagIbigNumber()  { return pagIbigNumber; }
     public String getStatus()         { return status; }
     public String getPosition()       { return position; }
-    public double getBasicMonthlySalary() { return basicMonthlySalary; }
-    public double getHourlyRate()     { return hourlyRate; }
+    public String getImmediateSupervisor() { return immediateSupervisor; }
+    public double getBasicMonthlySalary() { return Money.toPesos(getBasicMonthlySalaryCents()); }
+    public double getHourlyRate()     { return Money.toPesos(getHourlyRateCents()); }
+    public long getBasicMonthlySalaryCents() { return basicMonthlySalary; }
+    public long getHourlyRateCents()  { return hourlyRate; }
+    public long getRiceSubsidyCents() { return riceSubsidy; }
+    public long getPhoneAllowanceCents() { return phoneAllowance; }
+    public long getClothingAllowanceCents() { return clothingAllowance; }
+    public long getGrossSemiMonthlyRateCents() { return grossSemiMonthlyRate; }
 
     public String getFullName() {
-        return lastName + ", " + firstName;
+        return getLastName() + ", " + getFirstName();
     }
 
     @Override
     public String toString() {
-        return String.format("[%s] %s | %s | PHP %.2f/mo",
-                employeeNumber, getFullName(), position, basicMonthlySalary);
+        return String.format("[%s] %s | %s | PHP %s/mo", getEmployeeNumber(), getFullName(),
+                getPosition(), Money.toPlainString(getBasicMonthlySalaryCents()));
     }
 }
@@ -0,0 +1,132 @@
+package com.motorph;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * EmployeeRepository.java - Cached, indexed access to the employee master data (FR-01).
+ * The employee CSV is loaded once and indexed by employee number, status,
+ * position and immediate supervisor. The file is re-read only when its
+ * modification time or size changes (see FileWatch) and its checksum differs
+ * from the last load.
+ */
+public class EmployeeRepository {
+
+    /** One immutable loaded copy of the employee file and its indexes. */
+    private static final class Snapshot {
+        final List<Employee> all;
+        final Map<String, Employee> byNumber;
+        final Map<String, List<Employee>> byStatus;
+        final Map<String, List<Employee>> byPosition;
+        final Map<String, List<Employee>> bySupervisor;
+        final long checksum;
+
+        Snapshot(List<Employee> employees, long checksum) {
+            this.all = Collections.unmodifiableList(employees);
+            this.checksum = checksum;
+
+            Map<String, Employee> numbers = new HashMap<>(employees.size() * 2);
+            Map<String, List<Employee>> statuses = new LinkedHashMap<>();
+            Map<String, List<Employee>> positions = new LinkedHashMap<>();
+            Map<String, List<Employee>> supervisors = new LinkedHashMap<>();
+            for (Employee emp : employees) {
+                numbers.put(emp.getEmployeeNumber(), emp);
+                addTo(statuses, emp.getStatus(), emp);
+                addTo(positions, emp.getPosition(), emp);
+                addTo(supervisors, emp.getImmediateSupervisor(), emp);
+            }
+            this.byNumber = numbers;
+            this.byStatus = freeze(statuses);
+            this.byPosition = freeze(positions);
+            this.bySupervisor = freeze(supervisors);
+        }
+
+        private static void addTo(Map<String, List<Employee>> index, String key, Employee emp) {
+            if (key == null) return;
+            index.computeIfAbsent(key, k -> new ArrayList<>()).add(emp);
+        }
+
+        private static Map<String, List<Employee>> freeze(Map<String, List<Employee>> index) {
+            for (Map.Entry<String, List<Employee>> entry : index.entrySet()) {
+                entry.setValue(Collections.unmodifiableList(entry.getValue()));
+            }
+            return index;
+        }
+    }
+
+    private final String filePath;
+    private final CSVReader csvReader = new CSVReader();
+    private final FileWatch<Snapshot> snapshot;
+
+    public EmployeeRepository(String filePath) {
+        this.filePath = filePath;
+        this.snapshot = new FileWatch<>(this::load, filePath);
+    }
+
+    /**
+     * Finds an employee by employee number.
+     *
+     * @param employeeNumber The employee ID
+     * @return The employee, or null if not found
+     */
+    public Employee findByNumber(String employeeNumber) {
+        return current().byNumber.get(employeeNumber);
+    }
+
+    /** @return All employees in file order */
+    public List<Employee> findAll() {
+        return current().all;
+    }
+
+    /** @return Employees with the given status (e.g., "Regular") */
+    public List<Employee> findByStatus(String status) {
+        return current().byStatus.getOrDefault(status, Collections.emptyList());
+    }
+
+    /** @return Employees holding the given position */
+    public List<Employee> findByPosition(String position) {
+        return current().byPosition.getOrDefault(position, Collections.emptyList());
+    }
+
+    /** @return Direct reports of a supervisor, keyed as written in the CSV (e.g., "Garcia, Manuel III") */
+    public List<Employee> findBySupervisor(String supervisorName) {
+        return current().bySupervisor.getOrDefault(supervisorName, Collections.emptyList());
+    }
+
+    /** Returns the loaded snapshot, reloading it if the file changed. */
+    private Snapshot current() {
+        return snapshot.get();
+    }
+
+    private Snapshot load(Snapshot previous) {
+        long checksum = checksum(new File(filePath));
+        // A touched but unchanged file keeps the existing indexes
+        if (previous != null && checksum == previous.checksum) {
+            return previous;
+        }
+        return new Snapshot(csvReader.loadEmployees(filePath), checksum);
+    }
+
+    private static long checksum(File file) {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = new FileInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                crc.update(buffer, 0, n);
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,286 @@
+package com.motorph;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EmployeeTable.java - Column-oriented, compact copy of the employee master data (FR-01).
+ * Each column is one array: amounts are long centavos, status, position and supervisor
+ * are small integer codes into per-column dictionaries, and the rarely read text fields
+ * (names, birthday, address, phone and government numbers) are packed as UTF-8 bytes
+ * and only turned into Strings when read. Batch code can loop over the salary and rate
+ * columns without touching any String, and employee(row) gives an Employee view of a
+ * row for code that works with Employee objects.
+ * A loaded table is immutable and safe to share across threads.
+ */
+public final class EmployeeTable {
+
+    // Text columns kept packed, in employees.csv order
+    private static final int LAST_NAME = 0, FIRST_NAME = 1, BIRTHDAY = 2, ADDRESS = 3, PHONE = 4,
+            SSS_NUMBER = 5, PHILHEALTH_NUMBER = 6, TIN = 7, PAGIBIG_NUMBER = 8;
+    private static final int TEXT_COLUMNS = 9;
+    private static final int[] TEXT_CSV_INDEX = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+
+    /** Distinct values of a column, each stored once and referred to by code. */
+    private static final class Dictionary {
+        final Map<String, Integer> codes = new HashMap<>();
+        final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+    }
+
+    private final int size;
+    private final String[] employeeNumbers;
+    private final Map<String, Integer> rowByNumber;
+
+    // Numeric columns, in centavos
+    private final long[] basicMonthlySalary;
+    private final long[] riceSubsidy;
+    private final long[] phoneAllowance;
+    private final long[] clothingAllowance;
+    private final long[] grossSemiMonthlyRate;
+    private final long[] hourlyRate;
+
+    // Dictionary-encoded columns
+    private final int[] statusCodes;
+    private final int[] positionCodes;
+    private final int[] supervisorCodes;
+    private final String[] statuses;
+    private final String[] positions;
+    private final String[] supervisors;
+
+    // Packed text: field f of row r is text[textOffsets[r * TEXT_COLUMNS + f] .. next offset)
+    private final byte[] text;
+    private final int[] textOffsets;
+
+    private EmployeeTable(Builder b) {
+        this.size = b.size;
+        this.employeeNumbers = Arrays.copyOf(b.employeeNumbers, size);
+        this.basicMonthlySalary = Arrays.copyOf(b.amounts[0], size);
+        this.riceSubsidy = Arrays.copyOf(b.amounts[1], size);
+        this.phoneAllowance = Arrays.copyOf(b.amounts[2], size);
+        this.clothingAllowance = Arrays.copyOf(b.amounts[3], size);
+        this.grossSemiMonthlyRate = Arrays.copyOf(b.amounts[4], size);
+        this.hourlyRate = Arrays.copyOf(b.amounts[5], size);
+        this.statusCodes = Arrays.copyOf(b.statusCodes, size);
+        this.positionCodes = Arrays.copyOf(b.positionCodes, size);
+        this.supervisorCodes = Arrays.copyOf(b.supervisorCodes, size);
+        this.statuses = b.statuses.values.toArray(new String[0]);
+        this.positions = b.positions.values.toArray(new String[0]);
+        this.supervisors = b.supervisors.values.toArray(new String[0]);
+        this.text = Arrays.copyOf(b.text, b.textLength);
+        this.textOffsets = Arrays.copyOf(b.textOffsets, size * TEXT_COLUMNS + 1);
+
+        this.rowByNumber = new HashMap<>(size * 2);
+        for (int row = 0; row < size; row++) {
+            rowByNumber.putIfAbsent(employeeNumbers[row], row);
+        }
+    }
+
+    /**
+     * Loads employees.csv into a table. Invalid rows are skipped and reported
+     * the same way as CSVReader.loadEmployees.
+     *
+     * @param filePath Path to employees.csv
+     * @return Loaded table
+     */
+    public static EmployeeTable load(String filePath) {
+        Builder builder = new Builder();
+        PayrollEvents.EmployeeLoad event = PayrollEvents.beginEmployeeLoad();
+        long[] rows = {0, 0}; // scanned, rejected
+        new CSVReader().forEachRow(filePath, fields -> {
+            rows[0]++;
+            if (fields.length < 19) {
+                rows[1]++;
+                PayrollMetrics.malformedRow(filePath, "too few columns");
+                System.err.println("Skipping invalid record: " + String.join(",", fields));
+                return;
+            }
+            try {
+                builder.add(fields);
+            } catch (NumberFormatException | ArithmeticException e) {
+                rows[1]++;
+                PayrollMetrics.malformedRow(filePath, "invalid amount");
+                System.err.println("Skipping invalid record: " + String.join(",", fields));
+            }
+        });
+        if (event != null) {
+            event.record(filePath, rows[0], rows[1], builder.size);
+        }
+        return new EmployeeTable(builder);
+    }
+
+    /** Growable columns used while loading. */
+    private static final class Builder {
+        int size;
+        String[] employeeNumbers = new String[64];
+        long[][] amounts = new long[6][64];
+        int[] statusCodes = new int[64];
+        int[] positionCodes = new int[64];
+        int[] supervisorCodes = new int[64];
+        final Dictionary statuses = new Dictionary();
+        final Dictionary positions = new Dictionary();
+        final Dictionary supervisors = new Dictionary();
+        byte[] text = new byte[64 * 128];
+        int textLength;
+        int[] textOffsets = new int[64 * TEXT_COLUMNS + 1];
+
+        void add(String[] fields) {
+            // Parse every amount first so a bad row leaves no partial state
+            long[] values = new long[6];
+            for (int i = 0; i < 6; i++) {
+                values[i] = Money.parse(fields[13 + i]);
+            }
+            if (size == employeeNumbers.length) {
+                grow();
+            }
+            employeeNumbers[size] = fields[0];
+            for (int i = 0; i < 6; i++) {
+                amounts[i][size] = values[i];
+            }
+            statusCodes[size] = statuses.encode(fields[10]);
+            positionCodes[size] = positions.encode(fields[11]);
+            supervisorCodes[size] = supervisors.encode(fields[12]);
+            for (int f = 0; f < TEXT_COLUMNS; f++) {
+                byte[] utf8 = fields[TEXT_CSV_INDEX[f]].getBytes(StandardCharsets.UTF_8);
+                if (textLength + utf8.length > text.length) {
+                    text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + utf8.length));
+                }
+                System.arraycopy(utf8, 0, text, textLength, utf8.length);
+                textOffsets[size * TEXT_COLUMNS + f] = textLength;
+                textLength += utf8.length;
+            }
+            size++;
+            textOffsets[size * TEXT_COLUMNS] = textLength;
+        }
+
+        private void grow() {
+            int capacity = size * 2;
+            employeeNumbers = Arrays.copyOf(employeeNumbers, capacity);
+            for (int i = 0; i < amounts.length; i++) {
+                amounts[i] = Arrays.copyOf(amounts[i], capacity);
+            }
+            statusCodes = Arrays.copyOf(statusCodes, capacity);
+            positionCodes = Arrays.copyOf(positionCodes, capacity);
+            supervisorCodes = Arrays.copyOf(supervisorCodes, capacity);
+            textOffsets = Arrays.copyOf(textOffsets, capacity * TEXT_COLUMNS + 1);
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // ROWS AND COLUMNS
+    // -----------------------------------------------------------------------
+
+    /** @return Number of employees */
+    public int size() {
+        return size;
+    }
+
+    /** @return Row of an employee number, or -1 if not found */
+    public int rowOf(String employeeNumber) {
+        Integer row = rowByNumber.get(employeeNumber);
+        return row == null ? -1 : row;
+    }
+
+    public String employeeNumber(int row)        { return employeeNumbers[row]; }
+    public long basicMonthlySalaryCents(int row) { return basicMonthlySalary[row]; }
+    public long hourlyRateCents(int row)         { return hourlyRate[row]; }
+    public long riceSubsidyCents(int row)        { return riceSubsidy[row]; }
+    public long phoneAllowanceCents(int row)     { return phoneAllowance[row]; }
+    public long clothingAllowanceCents(int row)  { return clothingAllowance[row]; }
+    public long grossSemiMonthlyRateCents(int row) { return grossSemiMonthlyRate[row]; }
+
+    public int statusCode(int row)     { return statusCodes[row]; }
+    public int positionCode(int row)   { return positionCodes[row]; }
+    public int supervisorCode(int row) { return supervisorCodes[row]; }
+
+    public String status(int row)      { return statuses[statusCodes[row]]; }
+    public String position(int row)    { return positions[positionCodes[row]]; }
+    public String supervisor(int row)  { return supervisors[supervisorCodes[row]]; }
+
+    /** @return Distinct statuses, indexed by status code */
+    public List<String> statusDictionary()     { return Collections.unmodifiableList(Arrays.asList(statuses)); }
+    /** @return Distinct positions, indexed by position code */
+    public List<String> positionDictionary()   { return Collections.unmodifiableList(Arrays.asList(positions)); }
+    /** @return Distinct supervisors, indexed by supervisor code */
+    public List<String> supervisorDictionary() { return Collections.unmodifiableList(Arrays.asList(supervisors)); }
+
+    /** Decodes one packed text field of a row. */
+    private String text(int row, int field) {
+        int i = row * TEXT_COLUMNS + field;
+        int from = textOffsets[i];
+        return new String(text, from, textOffsets[i + 1] - from, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns an Employee backed by a row of this table. The view holds only the row
+     * number; text fields are decoded each time they are read.
+     *
+     * @param row Row number
+     * @return Employee view of the row
+     */
+    public Employee employee(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        return new RowView(row);
+    }
+
+    /** @return All rows as Employee views, in file order, without copying */
+    public List<Employee> asList() {
+        return new AbstractList<Employee>() {
+            @Override
+            public Employee get(int row) {
+                return employee(row);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /** Employee whose getters read one row of the table. */
+    private final class RowView extends Employee {
+        private final int row;
+
+        RowView(int row) {
+            this.row = row;
+        }
+
+        @Override public String getEmployeeNumber()     { return employeeNumbers[row]; }
+        @Override public String getLastName()           { return text(row, LAST_NAME); }
+        @Override public String getFirstName()          { return text(row, FIRST_NAME); }
+        @Override public String getBirthday()           { return text(row, BIRTHDAY); }
+        @Override public String getAddress()            { return text(row, ADDRESS); }
+        @Override public String getPhoneNumber()        { return text(row, PHONE); }
+        @Override public String getSssNumber()          { return text(row, SSS_NUMBER); }
+        @Override public String getPhilHealthNumber()   { return text(row, PHILHEALTH_NUMBER); }
+        @Override public String getTin()                { return text(row, TIN); }
+        @Override public String getPagIbigNumber()      { return text(row, PAGIBIG_NUMBER); }
+        @Override public String getStatus()             { return status(row); }
+        @Override public String getPosition()           { return position(row); }
+        @Override public String getImmediateSupervisor() { return supervisor(row); }
+        @Override public long getBasicMonthlySalaryCents() { return basicMonthlySalary[row]; }
+        @Override public long getHourlyRateCents()      { return hourlyRate[row]; }
+        @Override public long getRiceSubsidyCents()     { return riceSubsidy[row]; }
+        @Override public long getPhoneAllowanceCents()  { return phoneAllowance[row]; }
+        @Override public long getClothingAllowanceCents() { return clothingAllowance[row]; }
+        @Override public long getGrossSemiMonthlyRateCents() { return grossSemiMonthlyRate[row]; }
+    }
+}
@@ -0,0 +1,78 @@
+package com.motorph;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * FileRangeInputStream.java - Reads the bytes [start, end) of a file channel.
+ * Uses positional reads, so several streams can read different ranges of the
+ * same channel concurrently. Closing the stream does not close the channel.
+ */
+public final class FileRangeInputStream extends InputStream {
+
+    private final FileChannel channel;
+    private final long end;
+    private long position;
+
+    public FileRangeInputStream(FileChannel channel, long start, long end) {
+        this.channel = channel;
+        this.position = start;
+        this.end = end;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (position >= end) {
+            return -1;
+        }
+        int n = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - position)), position);
+        if (n > 0) {
+            position += n;
+        }
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, end - position);
+    }
+
+    /**
+     * Finds the first line start at or after a position: the byte after the next
+     * '\n', or the end of the file.
+     *
+     * @param channel  File to search
+     * @param position Starting position
+     * @return Offset of the next line start
+     * @throws IOException If the file cannot be read
+     */
+    public static long nextLineStart(FileChannel channel, long position) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+        long size = channel.size();
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        // Start at position - 1 so a range that already begins a line stays put
+        long pos = position - 1;
+        while (pos < size) {
+            buf.clear();
+            int n = channel.read(buf, pos);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                if (buf.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += n;
+        }
+        return size;
+    }
+}
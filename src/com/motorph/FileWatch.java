@@ -0,0 +1,93 @@
+package com.motorph;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * FileWatch.java - A value loaded from data files and reloaded when they change.
+ * The files' fingerprint (modification time and size) is checked at most once per
+ * CHECK_INTERVAL_MS. When any watch reloads, every other watch checks its own files
+ * on its next use instead of waiting out its interval, so the employee, attendance,
+ * shift and holiday data switch to new files together. Safe to share across threads.
+ *
+ * Usage:
+ *   FileWatch<Table> table = new FileWatch<>(previous -> Table.load(PATH), PATH);
+ *   table.get(); // loads on first use, then reuses the value until PATH changes
+ */
+public final class FileWatch<T> {
+
+    private static final long CHECK_INTERVAL_MS = 1000; // min time between file checks
+
+    /** Number of reloads by any watch; a watch rechecks when it moves. */
+    private static final AtomicLong reloads = new AtomicLong();
+
+    private final String[] paths;
+    private final UnaryOperator<T> loader;
+    private volatile T value;
+    private volatile long lastCheck;
+    private volatile long checkedReloads;
+    private long fingerprint; // guarded by this
+
+    /**
+     * @param loader Loads the value; receives the previous value (null on the first
+     *               load) and may return it unchanged if the content did not change
+     * @param paths  Files the value is loaded from
+     */
+    public FileWatch(UnaryOperator<T> loader, String... paths) {
+        this.loader = loader;
+        this.paths = paths.clone();
+    }
+
+    /**
+     * Returns the loaded value, loading it on first use and reloading it if a
+     * watched file changed.
+     *
+     * @return Current value
+     */
+    public T get() {
+        T v = value;
+        if (v != null && isFresh(System.currentTimeMillis())) {
+            return v;
+        }
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            v = value;
+            if (v != null && isFresh(now)) {
+                return v;
+            }
+            long seen = reloads.get(); // read before the check so a concurrent reload is not missed
+            long current = fingerprint(paths);
+            if (v == null || current != fingerprint) {
+                T loaded = loader.apply(v);
+                if (v != null && loaded != v) {
+                    reloads.incrementAndGet();
+                }
+                v = loaded;
+                value = v;
+                fingerprint = current;
+            }
+            checkedReloads = seen;
+            lastCheck = now;
+            return v;
+        }
+    }
+
+    private boolean isFresh(long now) {
+        return now - lastCheck < CHECK_INTERVAL_MS && checkedReloads == reloads.get();
+    }
+
+    /**
+     * Combines the modification time and size of each file into one value.
+     * Missing files contribute zeros, so creating or deleting one also changes it.
+     */
+    static long fingerprint(String... paths) {
+        long h = 1125899906842597L;
+        for (String path : paths) {
+            File file = new File(path);
+            h = 31 * h + file.lastModified();
+            h = 31 * h + file.length();
+        }
+        return h;
+    }
+}
@@ -0,0 +1,143 @@
+package com.motorph;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * HolidayCalendar.java - Regular and special non-working holidays (FR-03).
+ * Holidays are read from data/holidays.csv (date, name, type) into two bitsets indexed
+ * by epoch day: one bit per day that is any holiday and one per regular holiday, so
+ * classifying an attendance row costs one bit test and ordinary days never touch the
+ * second set. The shared calendar is reloaded when the file changes on disk (see
+ * FileWatch); without the file there are no holidays.
+ */
+public final class HolidayCalendar {
+
+    private static final String HOLIDAYS_FILE = "data/holidays.csv";
+
+    /** Day types returned by typeOf. */
+    public static final int ORDINARY = 0, SPECIAL = 1, REGULAR = 2;
+
+    private static final FileWatch<HolidayCalendar> SHARED =
+            new FileWatch<>(previous -> load(HOLIDAYS_FILE), HOLIDAYS_FILE);
+
+    private final int firstDay;   // epoch day of bit 0
+    private final long[] holiday; // any holiday
+    private final long[] regular; // regular holidays
+    private final int count;
+
+    private HolidayCalendar(int firstDay, long[] holiday, long[] regular, int count) {
+        this.firstDay = firstDay;
+        this.holiday = holiday;
+        this.regular = regular;
+        this.count = count;
+    }
+
+    /** @return A calendar without holidays */
+    public static HolidayCalendar none() {
+        return new HolidayCalendar(0, new long[0], new long[0], 0);
+    }
+
+    /**
+     * Returns the shared calendar, reloading it when data/holidays.csv changed
+     * (see FileWatch).
+     *
+     * @return Current calendar
+     */
+    public static HolidayCalendar shared() {
+        return SHARED.get();
+    }
+
+    /**
+     * Reads a holiday file: Date (MM/DD/YYYY),Holiday,Type (Regular or Special).
+     * Invalid rows are skipped. A date listed as both types is a regular holiday.
+     *
+     * @param filePath Path to holidays.csv
+     * @return Loaded calendar; empty if the file does not exist
+     */
+    public static HolidayCalendar load(String filePath) {
+        if (!new File(filePath).isFile()) {
+            return none();
+        }
+        List<int[]> days = new ArrayList<>(); // {epoch day, type}
+        new CSVReader().forEachRow(filePath, row -> {
+            long day = row.length < 3 ? AttendanceRowParser.INVALID_DATE : AttendanceRowParser.parseDate(row[0]);
+            int type = row.length < 3 ? -1 : typeOf(row[2]);
+            if (day == AttendanceRowParser.INVALID_DATE || type < 0) {
+                PayrollMetrics.malformedRow(filePath, "invalid holiday");
+                System.err.println("Skipping invalid holiday: " + String.join(",", row));
+                return;
+            }
+            days.add(new int[]{(int) day, type});
+        });
+        if (days.isEmpty()) {
+            return none();
+        }
+
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (int[] d : days) {
+            first = Math.min(first, d[0]);
+            last = Math.max(last, d[0]);
+        }
+        first &= ~63; // start on a word boundary
+        int words = ((last - first) >>> 6) + 1;
+        long[] holiday = new long[words];
+        long[] regular = new long[words];
+        int count = 0;
+        for (int[] d : days) {
+            int bit = d[0] - first;
+            if ((holiday[bit >>> 6] & (1L << bit)) == 0) count++;
+            holiday[bit >>> 6] |= 1L << bit;
+            if (d[1] == REGULAR) {
+                regular[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return new HolidayCalendar(first, holiday, regular, count);
+    }
+
+    private static int typeOf(String text) {
+        String type = text.trim().toUpperCase(Locale.ROOT);
+        if (type.startsWith("REGULAR")) return REGULAR;
+        if (type.startsWith("SPECIAL")) return SPECIAL;
+        return -1;
+    }
+
+    /**
+     * @param epochDay Days since 1970-01-01
+     * @return ORDINARY, SPECIAL or REGULAR
+     */
+    public int typeOf(int epochDay) {
+        int bit = epochDay - firstDay;
+        int word = bit >> 6;
+        if (bit < 0 || word >= holiday.length || (holiday[word] & (1L << bit)) == 0) {
+            return ORDINARY;
+        }
+        return (regular[word] & (1L << bit)) != 0 ? REGULAR : SPECIAL;
+    }
+
+    /** @return Number of holidays in the calendar */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Hashes the holidays between two days, for PayrollLedger input hashes.
+     *
+     * @param startDay First epoch day (inclusive)
+     * @param endDay   Last epoch day (inclusive)
+     * @return Hash of every holiday's day and type in the range
+     */
+    public long hash(int startDay, int endDay) {
+        long h = PayrollLedger.SEED;
+        for (int day = startDay; day <= endDay; day++) {
+            int type = typeOf(day);
+            if (type != ORDINARY) {
+                h = PayrollLedger.hash(PayrollLedger.hash(h, day), type);
+            }
+        }
+        return h;
+    }
+}
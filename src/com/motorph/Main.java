@@ -1,7 +1,15 @@
 package com.motorph;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 
 /**
  * MO-IT101 - MotorPH Payroll System
@@ -9,24 +17,52 @@ import java.util.Scanner;
  *
  * Main.java - Entry point of the MotorPH Payroll System.
  * Displays the main menu and routes user input to appropriate modules.
+ * Modules are created on first use, so a session that only looks up employees
+ * never loads the deduction tables, attendance logs or payslip layout.
+ *
+ * Without arguments the interactive menu starts. Otherwise one command runs:
+ *   lookup [EMPLOYEE_NO]
+ *   payroll EMPLOYEE_NO START_DATE END_DATE
+ *   payslip EMPLOYEE_NO START_DATE END_DATE [--format=txt|csv|json]
+ *   query [FILE|-] [--format=register|txt|csv|json]
+ * query answers one "EMPLOYEE_NO,START_DATE,END_DATE" line at a time from a file or
+ * stdin, all against the data loaded for the first query.
  */
 public class Main {
 
     // Shared instances of system modules
-    private static CSVReader            csvReader            = new CSVReader();
-    private static AttendanceProcessor  attendanceProcessor  = new AttendanceProcessor();
-    private static PayrollCalculator    payrollCalculator    = new PayrollCalculator();
-    private static PayslipGenerator     payslipGenerator     = new PayslipGenerator();
-    private static Scanner              scanner              = new Scanner(System.in);
+    private static final EmployeeRepository employeeRepository = new EmployeeRepository("data/employees.csv");
+    private static final BufferedReader     input = new BufferedReader(new InputStreamReader(System.in));
+
+    // Created on first use: the JVM initializes a holder class when it is first referenced
+    private static final class Payroll {
+        static final AttendanceProcessor attendanceProcessor = new AttendanceProcessor();
+        static final PayrollCalculator   payrollCalculator   = new PayrollCalculator();
+        static final PayrollCache        payrollCache        = new PayrollCache(256);
+    }
+
+    private static final class Payslips {
+        static final PayslipGenerator payslipGenerator = new PayslipGenerator();
+    }
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java -jar motorph-payroll-1.0.jar [COMMAND]",
+            "  lookup [EMPLOYEE_NO]",
+            "  payroll EMPLOYEE_NO START_DATE END_DATE",
+            "  payslip EMPLOYEE_NO START_DATE END_DATE [--format=txt|csv|json]",
+            "  query [FILE|-] [--format=register|txt|csv|json]");
 
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(runCommand(args));
+        }
         printBanner();
         boolean running = true;
         while (running) {
             printMainMenu();
             System.out.print("Enter choice: ");
-            String input = scanner.nextLine().trim();
-            switch (input) {
+            String choice = readLine();
+            switch (choice == null ? "0" : choice) { // end of input exits
                 case "1": viewEmployeeInformation(); break;
                 case "2": processPayroll();          break;
                 case "3": generatePayslip();         break;
@@ -38,7 +74,6 @@ public class Main {
                     System.out.println("[!] Invalid choice. Please enter 0-3.");
             }
         }
-        scanner.close();
     }
 
     // -----------------------------------------------------------------------
@@ -71,20 +106,21 @@ public class Main {
     private static void viewEmployeeInformation() {
         System.out.println("\n=== VIEW EMPLOYEE INFORMATION ===");
         System.out.print("Enter Employee Number (or ENTER to list all): ");
-        String empNum = scanner.nextLine().trim();
+        String empNum = readLine();
+        if (empNum == null) return;
 
-        List<Employee> employees = csvReader.loadEmployees("data/employees.csv");
-        boolean found = false;
-        for (Employee emp : employees) {
-            if (empNum.isEmpty() || emp.getEmployeeNumber().equals(empNum)) {
+        if (empNum.isEmpty()) {
+            for (Employee emp : employeeRepository.findAll()) {
                 printEmployeeDetails(emp);
-                found = true;
-                if (!empNum.isEmpty()) break;
             }
+            return;
         }
-        if (!found) {
+        Employee emp = employeeRepository.findByNumber(empNum);
+        if (emp == null) {
             System.out.println("[!] Employee #" + empNum + " not found.");
+            return;
         }
+        printEmployeeDetails(emp);
     }
 
     private static void printEmployeeDetails(Employee emp) {
@@ -94,8 +130,8 @@ public class Main {
         System.out.printf("  Birthday   : %s%n",   emp.getBirthday());
         System.out.printf("  Position   : %s%n",   emp.getPosition());
         System.out.printf("  Status     : %s%n",   emp.getStatus());
-        System.out.printf("  Basic Salary: PHP %,.2f%n", emp.getBasicMonthlySalary());
-        System.out.printf("  Hourly Rate : PHP %,.2f%n", emp.getHourlyRate());
+        System.out.println("  Basic Salary: PHP " + Money.format(emp.getBasicMonthlySalaryCents()));
+        System.out.println("  Hourly Rate : PHP " + Money.format(emp.getHourlyRateCents()));
         System.out.printf("  SSS #      : %s%n",   emp.getSssNumber());
         System.out.printf("  PhilHealth #: %s%n",  emp.getPhilHealthNumber());
         System.out.printf("  Pag-IBIG # : %s%n",   emp.getPagIbigNumber());
@@ -110,7 +146,8 @@ public class Main {
     private static void processPayroll() {
         System.out.println("\n=== PROCESS PAYROLL ===");
         System.out.print("Enter Employee Number: ");
-        String empNum = scanner.nextLine().trim();
+        String empNum = readLine();
+        if (empNum == null) return;
 
         Employee emp = findEmployee(empNum);
         if (emp == null) {
@@ -119,46 +156,38 @@ public class Main {
         }
 
         System.out.print("Enter Pay Period Start Date (YYYY-MM-DD): ");
-        String startDate = scanner.nextLine().trim();
+        String startDate = readLine();
         System.out.print("Enter Pay Period End Date   (YYYY-MM-DD): ");
-        String endDate = scanner.nextLine().trim();
-
-        // FR-02: Attendance
-        double hoursWorked  = attendanceProcessor.computeHoursWorked(empNum, startDate, endDate);
-        double lateMinutes  = attendanceProcessor.computeLateMinutes(empNum, startDate, endDate);
-        double lateDeduction = (emp.getHourlyRate() / 60.0) * lateMinutes;
-
-        // FR-03: Gross Pay
-        double grossPay = payrollCalculator.computeGrossPay(emp, hoursWorked);
+        String endDate = readLine();
+        if (startDate == null || endDate == null) return;
 
-        // FR-04 to FR-06: Statutory deductions
-        DeductionCalculator dc = new DeductionCalculator();
-        double sss        = dc.computeSSS(emp.getBasicMonthlySalary());
-        double philHealth = dc.computePhilHealth(emp.getBasicMonthlySalary());
-        double pagIbig    = dc.computePagIbig(emp.getBasicMonthlySalary());
+        // FR-02 to FR-08: Attendance, gross pay, deductions, withholding tax and net pay
+        PayrollResult result = computePayroll(emp, startDate, endDate);
 
-        // FR-07: Withholding tax
-        double taxableIncome    = grossPay - sss - philHealth - pagIbig - lateDeduction;
-        double withholdingTax   = dc.computeWithholdingTax(taxableIncome);
-
-        // FR-08: Net Pay
-        double netPay = grossPay - sss - philHealth - pagIbig - withholdingTax - lateDeduction;
+        printPayrollSummary(result);
+    }
 
-        // Display summary
+    private static void printPayrollSummary(PayrollResult result) {
+        Employee emp = result.getEmployee();
         System.out.println("\n--- Payroll Summary ---");
         System.out.printf("  Employee    : %s %s (#%s)%n", emp.getFirstName(), emp.getLastName(), emp.getEmployeeNumber());
-        System.out.printf("  Pay Period  : %s to %s%n", startDate, endDate);
-        System.out.printf("  Hours Worked: %.1f hrs%n",  hoursWorked);
-        System.out.printf("  Late Minutes: %.0f mins%n", lateMinutes);
+        System.out.printf("  Pay Period  : %s to %s%n", result.getStartDate(), result.getEndDate());
+        System.out.printf("  Hours Worked: %.1f hrs%n",  result.getHoursWorked());
+        System.out.printf("  Late Minutes: %d mins%n",   result.getLateMinutes());
+        System.out.printf("  Overtime    : %.1f hrs%n",  result.getOvertimeHours());
         System.out.println("  ........................................");
-        System.out.printf("  Gross Pay        : PHP %,12.2f%n", grossPay);
-        System.out.printf("  SSS Deduction    : PHP %,12.2f%n", sss);
-        System.out.printf("  PhilHealth       : PHP %,12.2f%n", philHealth);
-        System.out.printf("  Pag-IBIG         : PHP %,12.2f%n", pagIbig);
-        System.out.printf("  Late Deduction   : PHP %,12.2f%n", lateDeduction);
-        System.out.printf("  Withholding Tax  : PHP %,12.2f%n", withholdingTax);
+        System.out.println("  Basic Pay        : PHP " + Money.format(result.getBasicPay(), 12));
+        System.out.println("  Overtime Pay     : PHP " + Money.format(result.getOvertimePay(), 12));
+        System.out.println("  Night Diff.      : PHP " + Money.format(result.getNightDifferential(), 12));
+        System.out.println("  Holiday Premium  : PHP " + Money.format(result.getHolidayPremium(), 12));
+        System.out.println("  Gross Pay        : PHP " + Money.format(result.getGrossPay(), 12));
+        System.out.println("  SSS Deduction    : PHP " + Money.format(result.getSss(), 12));
+        System.out.println("  PhilHealth       : PHP " + Money.format(result.getPhilHealth(), 12));
+        System.out.println("  Pag-IBIG         : PHP " + Money.format(result.getPagIbig(), 12));
+        System.out.println("  Late Deduction   : PHP " + Money.format(result.getLateDeduction(), 12));
+        System.out.println("  Withholding Tax  : PHP " + Money.format(result.getWithholdingTax(), 12));
         System.out.println("  ........................................");
-        System.out.printf("  NET PAY          : PHP %,12.2f%n", netPay);
+        System.out.println("  NET PAY          : PHP " + Money.format(result.getNetPay(), 12));
         System.out.println("-----------------------");
     }
 
@@ -169,7 +198,8 @@ public class Main {
     private static void generatePayslip() {
         System.out.println("\n=== GENERATE PAYSLIP ===");
         System.out.print("Enter Employee Number: ");
-        String empNum = scanner.nextLine().trim();
+        String empNum = readLine();
+        if (empNum == null) return;
 
         Employee emp = findEmployee(empNum);
         if (emp == null) {
@@ -178,42 +208,226 @@ public class Main {
         }
 
         System.out.print("Enter Pay Period Start Date (YYYY-MM-DD): ");
-        String startDate = scanner.nextLine().trim();
+        String startDate = readLine();
         System.out.print("Enter Pay Period End Date   (YYYY-MM-DD): ");
-        String endDate = scanner.nextLine().trim();
+        String endDate = readLine();
+        if (startDate == null || endDate == null) return;
 
-        // Compute all values
-        double hoursWorked   = attendanceProcessor.computeHoursWorked(empNum, startDate, endDate);
-        double lateMinutes   = attendanceProcessor.computeLateMinutes(empNum, startDate, endDate);
-        double lateDeduction = (emp.getHourlyRate() / 60.0) * lateMinutes;
-        double grossPay      = payrollCalculator.computeGrossPay(emp, hoursWorked);
+        // Compute all values (reuses the result of Process Payroll for the same period)
+        PayrollResult result = computePayroll(emp, startDate, endDate);
 
-        DeductionCalculator dc = new DeductionCalculator();
-        double sss           = dc.computeSSS(emp.getBasicMonthlySalary());
-        double philHealth    = dc.computePhilHealth(emp.getBasicMonthlySalary());
-        double pagIbig       = dc.computePagIbig(emp.getBasicMonthlySalary());
-        double taxableIncome = grossPay - sss - philHealth - pagIbig - lateDeduction;
-        double withholdingTax = dc.computeWithholdingTax(taxableIncome);
-        double netPay        = grossPay - sss - philHealth - pagIbig - withholdingTax - lateDeduction;
+        // FR-09: Print payslip
+        Payslips.payslipGenerator.printPayslip(result);
+    }
 
-        String payPeriod = startDate + " to " + endDate;
+    // -----------------------------------------------------------------------
+    // COMMAND MODE
+    // -----------------------------------------------------------------------
 
-        // FR-09: Print payslip
-        payslipGenerator.printPayslip(emp, payPeriod, hoursWorked, grossPay,
-                sss, philHealth, pagIbig, withholdingTax, lateDeduction, netPay);
+    /**
+     * Runs one command-line command instead of the menu.
+     *
+     * @param args Command and its arguments
+     * @return Process exit status: 0 on success, 1 on a usage error, an unknown
+     *         employee, an invalid date or pay period, or a skipped query
+     */
+    private static int runCommand(String[] args) {
+        List<String> positional = new ArrayList<>();
+        String format = null;
+        for (String arg : args) {
+            if (arg.startsWith("--format=")) {
+                format = arg.substring("--format=".length());
+            } else {
+                positional.add(arg);
+            }
+        }
+        if (positional.isEmpty()) {
+            System.err.println(USAGE);
+            return 1;
+        }
+        String command = positional.get(0);
+        int n = positional.size();
+        try {
+            switch (command) {
+                case "lookup":
+                    if (n > 2 || format != null) break;
+                    return lookup(n > 1 ? positional.get(1) : "");
+                case "payroll":
+                    if (n != 4 || format != null) break;
+                    return payroll(positional.get(1), positional.get(2), positional.get(3), null);
+                case "payslip":
+                    if (n != 4) break;
+                    return payroll(positional.get(1), positional.get(2), positional.get(3),
+                            new PayslipRenderer(PayslipRenderer.Format.fromName(format != null ? format : "txt")));
+                case "query":
+                    if (n > 2) break;
+                    PayslipRenderer renderer = format == null || format.equalsIgnoreCase("register")
+                            ? null : new PayslipRenderer(PayslipRenderer.Format.fromName(format));
+                    String source = n > 1 ? positional.get(1) : "-";
+                    if (source.equals("-")) {
+                        return runQueries(input, "stdin", renderer);
+                    }
+                    try (BufferedReader in = new BufferedReader(new FileReader(source))) {
+                        return runQueries(in, source, renderer);
+                    }
+                default:
+                    break;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("[!] " + e.getMessage());
+        } catch (IOException e) {
+            System.err.println("[!] Query failed: " + e.getMessage());
+            return 1;
+        }
+        System.err.println(USAGE);
+        return 1;
+    }
+
+    private static int lookup(String empNum) {
+        if (empNum.isEmpty()) {
+            for (Employee emp : employeeRepository.findAll()) {
+                printEmployeeDetails(emp);
+            }
+            return 0;
+        }
+        Employee emp = employeeRepository.findByNumber(empNum);
+        if (emp == null) {
+            System.err.println("[!] Employee #" + empNum + " not found.");
+            return 1;
+        }
+        printEmployeeDetails(emp);
+        return 0;
+    }
+
+    /** Prints the payroll summary, or the payslip if a renderer is given. */
+    private static int payroll(String empNum, String startDate, String endDate, PayslipRenderer renderer) {
+        Employee emp = findEmployee(empNum);
+        if (emp == null) {
+            System.err.println("[!] Employee #" + empNum + " not found.");
+            return 1;
+        }
+        PayrollResult result;
+        try {
+            if (endsBeforeStart(startDate, endDate)) {
+                System.err.println("[!] Pay period ends before it starts: " + startDate + " to " + endDate);
+                return 1;
+            }
+            result = computePayroll(emp, startDate, endDate);
+        } catch (DateTimeParseException e) {
+            System.err.println("[!] Invalid date (expected YYYY-MM-DD): " + e.getParsedString());
+            return 1;
+        }
+        if (renderer == null) {
+            printPayrollSummary(result);
+        } else {
+            String payslip = renderer.render(result);
+            System.out.print(payslip);
+            if (renderer.getFormat() != PayslipRenderer.Format.TEXT) {
+                System.out.println();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Answers payroll queries, one "EMPLOYEE_NO,START_DATE,END_DATE" per line, as payroll
+     * register rows or as payslips (JSON payslips one object per line). Blank lines, lines
+     * starting with # and a header line are ignored; invalid queries are reported and skipped.
+     * Output is flushed whenever no more input is waiting, so another program can also
+     * send queries one at a time over a pipe.
+     *
+     * @param in       Query lines
+     * @param source   Name of the input, for error messages
+     * @param renderer Payslip renderer, or null for payroll register rows
+     * @return 0 if every query was answered, 1 if any was skipped
+     * @throws IOException If reading queries or writing answers fails
+     */
+    private static int runQueries(BufferedReader in, String source, PayslipRenderer renderer) throws IOException {
+        BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out), 64 * 1024);
+        StringBuilder payslip = new StringBuilder(2048);
+        if (renderer == null) {
+            out.write(BatchPayroll.REGISTER_HEADER);
+            out.newLine();
+        } else {
+            renderer.appendHeader(payslip);
+            out.append(payslip);
+        }
+        int skipped = 0;
+        boolean first = true;
+        String line;
+        while ((line = in.readLine()) != null) {
+            String query = line.trim();
+            boolean header = first && query.startsWith("Employee");
+            first = false;
+            if (query.isEmpty() || query.startsWith("#") || header) {
+                continue;
+            }
+            String[] fields = query.split(",", -1);
+            Employee emp = fields.length == 3 ? findEmployee(fields[0].trim()) : null;
+            PayrollResult result = null;
+            String reason = "unknown employee";
+            if (emp != null) {
+                try {
+                    if (endsBeforeStart(fields[1].trim(), fields[2].trim())) {
+                        reason = "invalid pay period";
+                    } else {
+                        result = computePayroll(emp, fields[1].trim(), fields[2].trim());
+                    }
+                } catch (DateTimeParseException e) {
+                    reason = "invalid date";
+                }
+            }
+            if (result == null) {
+                PayrollMetrics.malformedRow(source, reason);
+                System.err.println("Skipping invalid query: " + query);
+                skipped++;
+            } else if (renderer == null) {
+                BatchPayroll.writeRegisterRow(out, result);
+            } else {
+                payslip.setLength(0);
+                renderer.appendPayslip(result, payslip);
+                if (renderer.getFormat() != PayslipRenderer.Format.TEXT) {
+                    payslip.append(System.lineSeparator());
+                }
+                out.append(payslip);
+            }
+            if (!in.ready()) {
+                out.flush();
+            }
+        }
+        out.flush();
+        return skipped == 0 ? 0 : 1;
     }
 
     // -----------------------------------------------------------------------
     // UTILITY
     // -----------------------------------------------------------------------
 
-    private static Employee findEmployee(String employeeNumber) {
-        List<Employee> employees = csvReader.loadEmployees("data/employees.csv");
-        for (Employee emp : employees) {
-            if (emp.getEmployeeNumber().equals(employeeNumber)) {
-                return emp;
-            }
+    /** @return The next input line, trimmed, or null at end of input */
+    private static String readLine() {
+        try {
+            String line = input.readLine();
+            return line == null ? null : line.trim();
+        } catch (IOException e) {
+            System.err.println("Could not read input: " + e.getMessage());
+            return null;
         }
-        return null;
+    }
+
+    private static Employee findEmployee(String employeeNumber) {
+        return employeeRepository.findByNumber(employeeNumber);
+    }
+
+    /** @throws DateTimeParseException If either date is not YYYY-MM-DD */
+    private static boolean endsBeforeStart(String startDate, String endDate) {
+        return LocalDate.parse(endDate).isBefore(LocalDate.parse(startDate));
+    }
+
+    private static PayrollResult computePayroll(Employee emp, String startDate, String endDate) {
+        return Payroll.payrollCache.get(emp.getEmployeeNumber(), startDate, endDate, () -> {
+            AttendanceSummary attendance =
+                    Payroll.attendanceProcessor.computeAttendance(emp.getEmployeeNumber(), startDate, endDate);
+            return Payroll.payrollCalculator.computePayroll(emp, attendance, startDate, endDate);
+        });
     }
 }
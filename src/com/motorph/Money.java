@@ -0,0 +1,191 @@
+package com.motorph;
+
+/**
+ * Money.java - Exact fixed-point peso arithmetic on long centavos.
+ * All payroll amounts are carried as a long number of centavos (PHP 1.00 = 100).
+ *
+ * Rounding rule: every operation that produces a fraction of a centavo
+ * (rates, percentages, per-minute pay) rounds once to the nearest centavo,
+ * with halves rounded away from zero (HALF_UP). Sums and differences are exact.
+ */
+public final class Money {
+
+    public static final long ONE_PESO = 100;
+
+    private Money() {
+    }
+
+    /**
+     * Parses a peso amount such as "90,000", "535.71" or "-1,057.50" into centavos.
+     * Grouping commas are ignored; digits past the second decimal place are rounded.
+     *
+     * @param text Amount text
+     * @return Amount in centavos
+     * @throws NumberFormatException If the text is not a plain decimal amount
+     */
+    public static long parse(String text) {
+        String s = text.trim();
+        int i = 0;
+        boolean negative = false;
+        if (i < s.length() && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+        long whole = 0;
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                seenDigit = true;
+                if (!seenPoint) {
+                    whole = Math.addExact(Math.multiplyExact(whole, 10), c - '0');
+                } else if (fractionDigits < 2) {
+                    fraction = fraction * 10 + (c - '0');
+                    fractionDigits++;
+                } else if (fractionDigits == 2) {
+                    roundUp = c >= '5';
+                    fractionDigits++;
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else if (c != ',' || seenPoint) {
+                throw new NumberFormatException("Invalid amount: " + text);
+            }
+        }
+        if (!seenDigit) {
+            throw new NumberFormatException("Invalid amount: " + text);
+        }
+        if (fractionDigits == 1) {
+            fraction *= 10;
+        }
+        long cents = Math.addExact(Math.multiplyExact(whole, ONE_PESO), fraction + (roundUp ? 1 : 0));
+        return negative ? -cents : cents;
+    }
+
+    /**
+     * Converts a double peso amount to centavos, rounding HALF_UP.
+     *
+     * @param pesos Amount in pesos
+     * @return Amount in centavos
+     */
+    public static long ofPesos(double pesos) {
+        return pesos >= 0 ? (long) Math.floor(pesos * ONE_PESO + 0.5)
+                          : -(long) Math.floor(-pesos * ONE_PESO + 0.5);
+    }
+
+    /**
+     * @param cents Amount in centavos
+     * @return Amount in pesos, for display or interop only
+     */
+    public static double toPesos(long cents) {
+        return cents / (double) ONE_PESO;
+    }
+
+    /**
+     * Computes amount * numerator / denominator rounded HALF_UP to the centavo.
+     * Used for rates such as per-minute pay (hourly rate * minutes / 60).
+     *
+     * @param cents       Amount in centavos
+     * @param numerator   Multiplier
+     * @param denominator Positive divisor
+     * @return Scaled amount in centavos
+     */
+    public static long scale(long cents, long numerator, long denominator) {
+        return divideRounded(Math.multiplyExact(cents, numerator), denominator);
+    }
+
+    /**
+     * Applies a rate in basis points (1/100 of a percent; 2.5% = 250).
+     *
+     * @param cents       Amount in centavos
+     * @param basisPoints Rate in basis points
+     * @return Amount * rate rounded HALF_UP to the centavo
+     */
+    public static long percent(long cents, long basisPoints) {
+        return scale(cents, basisPoints, 10_000);
+    }
+
+    /**
+     * Integer division rounded HALF_UP (halves away from zero).
+     */
+    static long divideRounded(long numerator, long denominator) {
+        long half = denominator / 2;
+        return numerator >= 0 ? (numerator + half) / denominator
+                              : -((-numerator + half) / denominator);
+    }
+
+    /**
+     * Formats centavos with grouping commas and two decimals, e.g. "12,148.51".
+     *
+     * @param cents Amount in centavos
+     * @return Formatted amount
+     */
+    public static String format(long cents) {
+        StringBuilder sb = new StringBuilder(16);
+        appendTo(sb, cents, true);
+        return sb.toString();
+    }
+
+    /**
+     * Formats centavos right-aligned to a minimum width, like "%,{width}.2f".
+     *
+     * @param cents Amount in centavos
+     * @param width Minimum field width
+     * @return Formatted, left-padded amount
+     */
+    public static String format(long cents, int width) {
+        StringBuilder sb = new StringBuilder(Math.max(width, 16));
+        appendTo(sb, cents, true);
+        while (sb.length() < width) {
+            sb.insert(0, ' ');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Formats centavos without grouping, e.g. "12148.51", for CSV/bank files.
+     *
+     * @param cents Amount in centavos
+     * @return Plain decimal amount
+     */
+    public static String toPlainString(long cents) {
+        StringBuilder sb = new StringBuilder(16);
+        appendTo(sb, cents, false);
+        return sb.toString();
+    }
+
+    /**
+     * Appends a centavo amount to a buffer without intermediate objects.
+     *
+     * @param sb       Destination buffer
+     * @param cents    Amount in centavos
+     * @param grouping Whether to insert thousands separators
+     */
+    public static void appendTo(StringBuilder sb, long cents, boolean grouping) {
+        if (cents < 0) {
+            sb.append('-');
+            if (cents == Long.MIN_VALUE) {
+                throw new ArithmeticException("Amount out of range");
+            }
+            cents = -cents;
+        }
+        long whole = cents / ONE_PESO;
+        int fraction = (int) (cents % ONE_PESO);
+
+        String digits = Long.toString(whole);
+        int len = digits.length();
+        for (int i = 0; i < len; i++) {
+            if (grouping && i > 0 && (len - i) % 3 == 0) {
+                sb.append(',');
+            }
+            sb.append(digits.charAt(i));
+        }
+        sb.append('.');
+        sb.append((char) ('0' + fraction / 10));
+        sb.append((char) ('0' + fraction % 10));
+    }
+}
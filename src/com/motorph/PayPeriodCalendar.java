@@ -0,0 +1,59 @@
+package com.motorph;
+
+import java.time.LocalDate;
+
+/**
+ * PayPeriodCalendar.java - Numbering of fixed-length pay periods.
+ * Periods are consecutive blocks of lengthDays days; period 0 starts on the anchor
+ * date and earlier dates get negative numbers. The default is weekly periods,
+ * Monday to Sunday, anchored on Monday 2024-01-01.
+ */
+public final class PayPeriodCalendar {
+
+    public static final LocalDate DEFAULT_ANCHOR = LocalDate.of(2024, 1, 1); // a Monday
+    public static final int WEEKLY = 7;
+
+    private final int anchorDay;
+    private final int lengthDays;
+
+    public PayPeriodCalendar(LocalDate anchor, int lengthDays) {
+        if (lengthDays < 1) {
+            throw new IllegalArgumentException("Pay period length must be at least one day");
+        }
+        this.anchorDay = (int) anchor.toEpochDay();
+        this.lengthDays = lengthDays;
+    }
+
+    /** @return Monday-to-Sunday periods */
+    public static PayPeriodCalendar weekly() {
+        return new PayPeriodCalendar(DEFAULT_ANCHOR, WEEKLY);
+    }
+
+    public int getAnchorDay()  { return anchorDay; }
+    public int getLengthDays() { return lengthDays; }
+
+    /** @return Number of the period containing the epoch day */
+    public int periodOf(int epochDay) {
+        return Math.floorDiv(epochDay - anchorDay, lengthDays);
+    }
+
+    /** @return Number of the period containing the date */
+    public int periodOf(LocalDate date) {
+        return periodOf((int) date.toEpochDay());
+    }
+
+    /** @return First day of a period */
+    public LocalDate start(int period) {
+        return LocalDate.ofEpochDay(anchorDay + (long) period * lengthDays);
+    }
+
+    /** @return Last day of a period */
+    public LocalDate end(int period) {
+        return start(period).plusDays(lengthDays - 1);
+    }
+
+    @Override
+    public String toString() {
+        return lengthDays + "-day periods starting " + LocalDate.ofEpochDay(anchorDay);
+    }
+}
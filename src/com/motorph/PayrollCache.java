@@ -0,0 +1,116 @@
+package com.motorph;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * PayrollCache.java - Bounded LRU cache of computed payroll results (FR-03 to FR-08).
+ * Entries are keyed by employee number, pay period and the generation of the input
+ * files: the cache watches every input file (see FileWatch), and each change starts a
+ * new generation and drops all entries. A result computed while the inputs changed
+ * may come from the old files, so it is returned but not stored.
+ * Safe to share across threads.
+ */
+public class PayrollCache {
+
+    private static final String[] INPUT_FILES = {
+        "data/employees.csv", "data/attendance.csv", "data/attendance.bin", "data/sss.csv", "data/tax.csv",
+        "data/shifts.csv", "data/shift_assignments.csv", "data/holidays.csv"
+    };
+
+    private final int maxEntries;
+    private final FileWatch<Long> inputs; // generation of the input files, +1 per change
+    private final Map<String, PayrollResult> entries;
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public PayrollCache(int maxEntries) {
+        this(maxEntries, INPUT_FILES);
+    }
+
+    public PayrollCache(int maxEntries, String... inputFiles) {
+        this.maxEntries = maxEntries;
+        this.inputs = new FileWatch<>(previous -> previous == null ? 0L : previous + 1, inputFiles);
+        this.entries = new LinkedHashMap<String, PayrollResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PayrollResult> eldest) {
+                if (size() > PayrollCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+        inputs.get();
+    }
+
+    /**
+     * Returns the cached result for the employee and period, computing and
+     * storing it on a miss.
+     *
+     * @param employeeNumber The employee ID
+     * @param startDate      Start of pay period (YYYY-MM-DD)
+     * @param endDate        End of pay period (YYYY-MM-DD)
+     * @param compute        Computes the result on a miss
+     * @return Cached or freshly computed result
+     */
+    public PayrollResult get(String employeeNumber, String startDate, String endDate,
+                             Supplier<PayrollResult> compute) {
+        long current = inputs.get();
+        String key = employeeNumber + '|' + startDate + '|' + endDate + '|' + current;
+        synchronized (this) {
+            if (current > generation) {
+                generation = current;
+                invalidateAll();
+            }
+            PayrollResult cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+        // Computed outside the lock; a concurrent miss on the same key just computes twice
+        PayrollResult result = compute.get();
+        if (result != null && inputs.get() == current) {
+            synchronized (this) {
+                if (generation == current) {
+                    entries.put(key, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Drops every cached result. */
+    public synchronized void invalidateAll() {
+        if (!entries.isEmpty()) {
+            invalidations++;
+            entries.clear();
+        }
+    }
+
+    public synchronized int size()              { return entries.size(); }
+    public synchronized long getHits()          { return hits; }
+    public synchronized long getMisses()        { return misses; }
+    public synchronized long getEvictions()     { return evictions; }
+    public synchronized long getInvalidations() { return invalidations; }
+
+    /** @return Fraction of lookups served from the cache, 0 if none yet */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : hits / (double) total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Payroll cache: %d/%d entries, %d hits, %d misses (%.0f%% hit rate), "
+                + "%d evictions, %d invalidations", entries.size(), maxEntries, hits, misses,
+                getHitRate() * 100, evictions, invalidations);
+    }
+}
@@ -1,45 +1,212 @@
 package com.motorph;
 
+import java.util.List;
+import java.util.function.IntFunction;
+
 /**
  * PayrollCalculator.java - Computes gross pay and net pay for an employee.
  * Implements FR-03 (Gross Pay), FR-08 (Net Pay).
+ * Gross pay is the basic pay of the regular hours plus overtime pay, night differential
+ * and the rest-day and holiday premium, each computed from the attendance summary's
+ * pay weights (see AttendanceRules.addDay).
+ * All amounts are long centavos (see Money); each pay component is rounded once.
+ * A single instance holds no mutable state and may be shared across threads.
  */
 public class PayrollCalculator {
 
+    // Pay of one employee computed by computePay, PAY_FIELDS per employee
+    private static final int OVERTIME_PAY = 0, NIGHT_DIFFERENTIAL = 1, HOLIDAY_PREMIUM = 2,
+            GROSS_PAY = 3, LATE_DEDUCTION = 4;
+    private static final int PAY_FIELDS = 5;
+
     private DeductionCalculator deductionCalculator;
 
     public PayrollCalculator() {
         this.deductionCalculator = new DeductionCalculator();
     }
 
+    public PayrollCalculator(DeductionCalculator deductionCalculator) {
+        this.deductionCalculator = deductionCalculator;
+    }
+
+    /** @return Hash of the deduction tables behind this calculator's results */
+    public long getTablesHash() {
+        return deductionCalculator.getTablesHash();
+    }
+
+    /**
+     * Pays minutes weighted by their pay rate.
+     * Formula: (Hourly Rate / 60) x Weight / RATE_SCALE
+     *
+     * @param hourlyRate Hourly rate in centavos
+     * @param weight     Minutes times rate, in AttendanceRules.RATE_SCALE units
+     * @return Pay in centavos
+     */
+    public static long computeWeightedPay(long hourlyRate, long weight) {
+        return Money.scale(hourlyRate, weight, 60L * AttendanceRules.RATE_SCALE);
+    }
+
+    /**
+     * FR-03: Computes one employee's gross pay and late deduction, used by both
+     * computePayroll and computePayrolls.
+     * Formula: Gross Pay = Basic Pay + Overtime Pay + Night Differential + Holiday Premium
+     *          Late Deduction = (Hourly Rate / 60) x Late Minutes
+     *
+     * @param hourlyRate Hourly rate in centavos
+     * @param attendance Attendance summary of the pay period
+     * @param pay        Receives the pay components, PAY_FIELDS from offset at
+     * @param at         Offset of the employee's pay in the array
+     */
+    private static void computePay(long hourlyRate, AttendanceSummary attendance, long[] pay, int at) {
+        long overtimePay       = computeWeightedPay(hourlyRate, attendance.getOvertimeWeight());
+        long nightDifferential = computeWeightedPay(hourlyRate, attendance.getNightWeight());
+        long holidayPremium    = computeWeightedPay(hourlyRate, attendance.getPremiumWeight());
+        pay[at + OVERTIME_PAY]       = overtimePay;
+        pay[at + NIGHT_DIFFERENTIAL] = nightDifferential;
+        pay[at + HOLIDAY_PREMIUM]    = holidayPremium;
+        pay[at + GROSS_PAY]      = Money.scale(hourlyRate, attendance.getWorkedMinutes(), 60)
+                + overtimePay + nightDifferential + holidayPremium;
+        pay[at + LATE_DEDUCTION] = Money.scale(hourlyRate, attendance.getLateMinutes(), 60);
+    }
+
+    /**
+     * FR-03 to FR-08: Computes the full payroll of an employee for a pay period
+     * from an already aggregated attendance summary.
+     *
+     * @param employee    The employee record
+     * @param attendance  Attendance summary of the period
+     * @param startDate   Start of pay period (YYYY-MM-DD)
+     * @param endDate     End of pay period (YYYY-MM-DD)
+     * @return All payroll figures for the period
+     */
+    public PayrollResult computePayroll(Employee employee, AttendanceSummary attendance,
+                                        String startDate, String endDate) {
+        long t0 = PayrollMetrics.start();
+        PayrollEvents.Deductions event = PayrollEvents.beginDeductions();
+        long[] pay = new long[PAY_FIELDS];
+        computePay(employee.getHourlyRateCents(), attendance, pay, 0);
+        long grossPay      = pay[GROSS_PAY];
+        long lateDeduction = pay[LATE_DEDUCTION];
+
+        long salary        = employee.getBasicMonthlySalaryCents();
+        long sss           = deductionCalculator.computeSSS(salary);
+        long philHealth    = deductionCalculator.computePhilHealth(salary);
+        long pagIbig       = deductionCalculator.computePagIbig(salary);
+        long taxableIncome = grossPay - sss - philHealth - pagIbig - lateDeduction;
+        long withholdingTax = deductionCalculator.computeWithholdingTax(taxableIncome);
+        long netPay        = grossPay - sss - philHealth - pagIbig - withholdingTax - lateDeduction;
+        PayrollMetrics.record(PayrollMetrics.Stage.DEDUCTIONS, t0);
+
+        PayrollResult result = new PayrollResult(employee, startDate, endDate, attendance.getWorkedMinutes(),
+                attendance.getLateMinutes(), attendance.getOvertimeMinutes(), attendance.getNightMinutes(),
+                pay[OVERTIME_PAY], pay[NIGHT_DIFFERENTIAL], pay[HOLIDAY_PREMIUM], grossPay, sss, philHealth,
+                pagIbig, lateDeduction, withholdingTax, netPay);
+        if (event != null) {
+            event.record(result, 1);
+        }
+        return result;
+    }
+
     /**
-     * FR-03: Computes gross weekly salary.
-     * Formula: Hourly Rate x Total Regular Hours Worked
+     * FR-03 to FR-08 for many employees and one pay period. Gives the same results
+     * as computePayroll for each employee, but reads each employee once into
+     * primitive columns and computes every deduction in one loop per column.
      *
-     * @param employee      The employee record
-     * @param hoursWorked   Total hours worked in the pay period
-     * @return Gross pay amount
+     * @param employees   The employee records
+     * @param attendance  Attendance summaries, in employee order
+     * @param startDate   Start of pay period (YYYY-MM-DD)
+     * @param endDate     End of pay period (YYYY-MM-DD)
+     * @return All payroll figures, in employee order
      */
-    public double computeGrossPay(Employee employee, double hoursWorked) {
-        return employee.getHourlyRate() * hoursWorked;
+    public PayrollResult[] computePayrolls(List<Employee> employees, AttendanceSummary[] attendance,
+                                           String startDate, String endDate) {
+        int n = employees.size();
+        long[] salary = new long[n];
+        long[] rate   = new long[n];
+        for (int i = 0; i < n; i++) {
+            Employee emp = employees.get(i);
+            salary[i] = emp.getBasicMonthlySalaryCents();
+            rate[i]   = emp.getHourlyRateCents();
+        }
+        return computePayrolls(employees::get, salary, rate, attendance, startDate, endDate);
     }
 
     /**
-     * FR-08: Computes net pay.
-     * Formula: Net Pay = Gross Pay - SSS - PhilHealth - Pag-IBIG - W/Tax - Late Deductions
+     * computePayrolls for rows from to to - 1 of an employee table. Salaries and hourly
+     * rates are read straight from the table's columns; each row's Employee view is
+     * only created for its PayrollResult.
      *
-     * @param employee        The employee record
-     * @param grossPay        Computed gross pay
-     * @param lateDeductions  Late/undertime deduction amount
-     * @return Net pay amount
+     * @param table       The employee table
+     * @param from        First row
+     * @param to          End row, exclusive
+     * @param attendance  Attendance summaries, attendance[i] for row from + i
+     * @param startDate   Start of pay period (YYYY-MM-DD)
+     * @param endDate     End of pay period (YYYY-MM-DD)
+     * @return All payroll figures, in row order
      */
-    public double computeNetPay(Employee employee, double grossPay, double lateDeductions) {
-        double sss         = deductionCalculator.computeSSS(employee.getBasicMonthlySalary());
-        double philHealth  = deductionCalculator.computePhilHealth(employee.getBasicMonthlySalary());
-        double pagIbig     = deductionCalculator.computePagIbig(employee.getBasicMonthlySalary());
-        double taxableIncome = grossPay - sss - philHealth - pagIbig - lateDeductions;
-        double withholdingTax = deductionCalculator.computeWithholdingTax(taxableIncome);
-
-        return grossPay - sss - philHealth - pagIbig - withholdingTax - lateDeductions;
+    public PayrollResult[] computePayrolls(EmployeeTable table, int from, int to, AttendanceSummary[] attendance,
+                                           String startDate, String endDate) {
+        if (from < 0 || from > to || to > table.size()) {
+            throw new IndexOutOfBoundsException("Rows " + from + " to " + to + " of " + table.size());
+        }
+        int n = to - from;
+        long[] salary = new long[n];
+        long[] rate   = new long[n];
+        for (int i = 0; i < n; i++) {
+            salary[i] = table.basicMonthlySalaryCents(from + i);
+            rate[i]   = table.hourlyRateCents(from + i);
+        }
+        return computePayrolls(i -> table.employee(from + i), salary, rate, attendance, startDate, endDate);
+    }
+
+    /**
+     * @param employee Employee of each index, for the results
+     * @param salary   Basic monthly salaries; reused for the taxable incomes
+     * @param rate     Hourly rates
+     */
+    private PayrollResult[] computePayrolls(IntFunction<Employee> employee, long[] salary, long[] rate,
+                                            AttendanceSummary[] attendance, String startDate, String endDate) {
+        int n = salary.length;
+        if (attendance.length < n) {
+            throw new IllegalArgumentException(n + " employees but " + attendance.length + " attendance summaries");
+        }
+        long t0 = PayrollMetrics.start();
+        long[] pay = new long[n * PAY_FIELDS];
+        for (int i = 0; i < n; i++) {
+            computePay(rate[i], attendance[i], pay, i * PAY_FIELDS);
+        }
+
+        long[] sss        = new long[n];
+        long[] philHealth = new long[n];
+        long[] pagIbig    = new long[n];
+        deductionCalculator.computeSSS(salary, sss, n);
+        deductionCalculator.computePhilHealth(salary, philHealth, n);
+        deductionCalculator.computePagIbig(salary, pagIbig, n);
+
+        long[] taxableIncome = salary; // salaries are no longer needed
+        for (int i = 0; i < n; i++) {
+            int at = i * PAY_FIELDS;
+            taxableIncome[i] = pay[at + GROSS_PAY] - sss[i] - philHealth[i] - pagIbig[i] - pay[at + LATE_DEDUCTION];
+        }
+        long[] withholdingTax = new long[n];
+        deductionCalculator.computeWithholdingTax(taxableIncome, withholdingTax, n);
+
+        PayrollResult[] results = new PayrollResult[n];
+        for (int i = 0; i < n; i++) {
+            int at = i * PAY_FIELDS;
+            AttendanceSummary a = attendance[i];
+            results[i] = new PayrollResult(employee.apply(i), startDate, endDate, a.getWorkedMinutes(),
+                    a.getLateMinutes(), a.getOvertimeMinutes(), a.getNightMinutes(), pay[at + OVERTIME_PAY],
+                    pay[at + NIGHT_DIFFERENTIAL], pay[at + HOLIDAY_PREMIUM], pay[at + GROSS_PAY], sss[i],
+                    philHealth[i], pagIbig[i], pay[at + LATE_DEDUCTION], withholdingTax[i],
+                    taxableIncome[i] - withholdingTax[i]);
+        }
+        PayrollMetrics.record(PayrollMetrics.Stage.DEDUCTIONS, t0);
+        if (PayrollEvents.active()) {
+            for (PayrollResult r : results) {
+                new PayrollEvents.Deductions().record(r, n);
+            }
+        }
+        return results;
     }
 }
@@ -0,0 +1,253 @@
+package com.motorph;
+
+import java.time.LocalDate;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * PayrollEvents.java - JDK Flight Recorder events of the payroll stages, so a
+ * recorded run shows which employee and which stage was slow or produced an
+ * unexpected amount. The events appear under "MotorPH Payroll" in JDK Mission Control.
+ *
+ * Each stage begins its event before the work and passes the results to record(),
+ * which only fills in and commits the event if it is enabled. Loading the first event
+ * class starts Flight Recorder's support code (about 300 classes, a quarter of a second),
+ * so the begin methods return null until Flight Recorder is initialized, either by
+ * -XX:StartFlightRecording or by a later "jcmd PID JFR.start"; until then no event
+ * class is loaded or allocated. Amounts are in centavos, as in PayrollResult.
+ *
+ * Usage:
+ *   java -XX:StartFlightRecording=filename=payroll.jfr,settings=profile -jar motorph-payroll-1.0.jar ...
+ *   jfr print --events 'com.motorph.*' payroll.jfr
+ */
+final class PayrollEvents {
+
+    private static final String CATEGORY = "MotorPH Payroll";
+
+    private PayrollEvents() {
+    }
+
+    /** @return true once Flight Recorder is initialized and events may be recorded */
+    static boolean active() {
+        return FlightRecorder.isInitialized();
+    }
+
+    /** @return A begun event, or null if Flight Recorder is not initialized */
+    static EmployeeLoad beginEmployeeLoad() {
+        if (!active()) return null;
+        EmployeeLoad event = new EmployeeLoad();
+        event.begin();
+        return event;
+    }
+
+    /** @return A begun event, or null if Flight Recorder is not initialized */
+    static AttendanceLoad beginAttendanceLoad() {
+        if (!active()) return null;
+        AttendanceLoad event = new AttendanceLoad();
+        event.begin();
+        return event;
+    }
+
+    /** @return A begun event, or null if Flight Recorder is not initialized */
+    static Attendance beginAttendance() {
+        if (!active()) return null;
+        Attendance event = new Attendance();
+        event.begin();
+        return event;
+    }
+
+    /** @return A begun event, or null if Flight Recorder is not initialized */
+    static Deductions beginDeductions() {
+        if (!active()) return null;
+        Deductions event = new Deductions();
+        event.begin();
+        return event;
+    }
+
+    /** @return A begun event, or null if Flight Recorder is not initialized */
+    static PayslipRender beginPayslipRender() {
+        if (!active()) return null;
+        PayslipRender event = new PayslipRender();
+        event.begin();
+        return event;
+    }
+
+    /** Reading employees.csv (CSVReader.loadEmployees, EmployeeTable.load). */
+    @Name("com.motorph.EmployeeLoad")
+    @Label("Employee Load")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class EmployeeLoad extends Event {
+        @Label("File")
+        String file;
+        @Label("Rows Scanned")
+        long rowsScanned;
+        @Label("Rows Rejected")
+        long rowsRejected;
+        @Label("Employees")
+        long employees;
+
+        void record(String file, long rowsScanned, long rowsRejected, long employees) {
+            if (shouldCommit()) {
+                this.file = file;
+                this.rowsScanned = rowsScanned;
+                this.rowsRejected = rowsRejected;
+                this.employees = employees;
+                commit();
+            }
+        }
+    }
+
+    /** Reading and indexing attendance.csv (AttendanceIndex.load, loadParallel). */
+    @Name("com.motorph.AttendanceLoad")
+    @Label("Attendance Load")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class AttendanceLoad extends Event {
+        @Label("File")
+        String file;
+        @Label("Rows Scanned")
+        long rowsScanned;
+        @Label("Rows Rejected")
+        long rowsRejected;
+        @Label("Employees")
+        long employees;
+
+        void record(String file, long rowsScanned, long rowsRejected, long employees) {
+            if (shouldCommit()) {
+                this.file = file;
+                this.rowsScanned = rowsScanned;
+                this.rowsRejected = rowsRejected;
+                this.employees = employees;
+                commit();
+            }
+        }
+    }
+
+    /** One employee's attendance summary for a pay period (FR-02). */
+    @Name("com.motorph.Attendance")
+    @Label("Attendance")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Attendance extends Event {
+        @Label("Employee Number")
+        String employeeNumber;
+        @Label("Period Start")
+        String periodStart;
+        @Label("Period End")
+        String periodEnd;
+        @Label("Rows Scanned")
+        @Description("Attendance rows of the employee in the period")
+        long rowsScanned;
+        @Label("Worked Minutes")
+        long workedMinutes;
+        @Label("Late Minutes")
+        long lateMinutes;
+        @Label("Overtime Minutes")
+        long overtimeMinutes;
+        @Label("Night Minutes")
+        long nightMinutes;
+
+        void record(String employeeNumber, LocalDate start, LocalDate end, AttendanceSummary summary) {
+            if (shouldCommit()) {
+                this.employeeNumber = employeeNumber;
+                this.periodStart = start.toString();
+                this.periodEnd = end.toString();
+                this.rowsScanned = summary.getRows();
+                this.workedMinutes = summary.getWorkedMinutes();
+                this.lateMinutes = summary.getLateMinutes();
+                this.overtimeMinutes = summary.getOvertimeMinutes();
+                this.nightMinutes = summary.getNightMinutes();
+                commit();
+            }
+        }
+    }
+
+    /**
+     * One employee's pay and deductions (FR-03 to FR-08). Employees computed in a
+     * batch (PayrollCalculator.computePayrolls) each get an event without a duration
+     * when the batch ends, since their deductions are computed together.
+     */
+    @Name("com.motorph.Deductions")
+    @Label("Deductions")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class Deductions extends Event {
+        @Label("Employee Number")
+        String employeeNumber;
+        @Label("Period Start")
+        String periodStart;
+        @Label("Period End")
+        String periodEnd;
+        @Label("Batch Size")
+        int batchSize;
+        @Label("Gross Pay")
+        long grossPay;
+        @Label("SSS")
+        long sss;
+        @Label("PhilHealth")
+        long philHealth;
+        @Label("Pag-IBIG")
+        long pagIbig;
+        @Label("Late Deduction")
+        long lateDeduction;
+        @Label("Withholding Tax")
+        long withholdingTax;
+        @Label("Net Pay")
+        long netPay;
+
+        void record(PayrollResult r, int batchSize) {
+            if (shouldCommit()) {
+                this.employeeNumber = r.getEmployee().getEmployeeNumber();
+                this.periodStart = r.getStartDate();
+                this.periodEnd = r.getEndDate();
+                this.batchSize = batchSize;
+                this.grossPay = r.getGrossPay();
+                this.sss = r.getSss();
+                this.philHealth = r.getPhilHealth();
+                this.pagIbig = r.getPagIbig();
+                this.lateDeduction = r.getLateDeduction();
+                this.withholdingTax = r.getWithholdingTax();
+                this.netPay = r.getNetPay();
+                commit();
+            }
+        }
+    }
+
+    /** Rendering one payslip (FR-09). */
+    @Name("com.motorph.PayslipRender")
+    @Label("Payslip Render")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class PayslipRender extends Event {
+        @Label("Employee Number")
+        String employeeNumber;
+        @Label("Period Start")
+        String periodStart;
+        @Label("Period End")
+        String periodEnd;
+        @Label("Format")
+        String format;
+        @Label("Characters")
+        long characters;
+        @Label("Net Pay")
+        long netPay;
+
+        void record(PayrollResult r, PayslipRenderer.Format format, long characters) {
+            if (shouldCommit()) {
+                this.employeeNumber = r.getEmployee().getEmployeeNumber();
+                this.periodStart = r.getStartDate();
+                this.periodEnd = r.getEndDate();
+                this.format = format.getExtension();
+                this.characters = characters;
+                this.netPay = r.getNetPay();
+                commit();
+            }
+        }
+    }
+}
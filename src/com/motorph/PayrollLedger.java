@@ -0,0 +1,471 @@
+package com.motorph;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PayrollLedger.java - Append-only record of computed payroll results (FR-02 to FR-08).
+ * Each line holds one employee's result for one pay period together with a hash of
+ * everything it was computed from: the employee row, the employee's attendance rows
+ * in the period, their shift, the period's holidays and the deduction tables. A rerun
+ * of a period reuses the latest result of every employee whose inputs still hash the
+ * same, recomputes only the others, appends the recomputed results and reports what
+ * changed since the previous run.
+ * Lines are never rewritten. A last line cut off by an interrupted run is skipped when
+ * reading and removed before the next append. When the columns change, the new header
+ * is appended before the first results in the new layout; older lines are still read.
+ */
+public final class PayrollLedger {
+
+    static final String HEADER = "Run,Recorded At,Pay Period Start,Pay Period End,Employee #,"
+            + "Input Hash,Worked Minutes,Late Minutes,Overtime Minutes,Night Minutes,Overtime Pay,"
+            + "Night Differential,Holiday Premium,Gross Pay,SSS,PhilHealth,Pag-IBIG,"
+            + "Late Deduction,Withholding Tax,Net Pay";
+    private static final int COLUMNS = 20;
+    // Ledgers written before overtime and premiums were paid have no overtime,
+    // night or premium columns
+    private static final int V1_COLUMNS = 15;
+    private static final int FIGURES = 14;
+
+    static final String DIFF_HEADER = "Employee #,Change,Previous Gross Pay,Gross Pay,"
+            + "Previous Net Pay,Net Pay,Net Pay Difference";
+
+    // Mixed into every input hash; bump when the payroll rules change, so results
+    // computed under the old rules are not reused
+    private static final int RULES_VERSION = 6;
+
+    static final long SEED = 0xCBF29CE484222325L;
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final String filePath;
+
+    /**
+     * @param filePath Ledger file; created on the first run that records results
+     */
+    public PayrollLedger(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public String getFilePath() { return filePath; }
+
+    // -----------------------------------------------------------------------
+    // ENTRIES
+    // -----------------------------------------------------------------------
+
+    /** One ledger line: an employee's computed result for a period and the hash of its inputs. */
+    public static final class Entry {
+        private final int run;
+        private final String employeeNumber;
+        private final String startDate;
+        private final String endDate;
+        private final long inputHash;
+        // Worked, late, overtime and night minutes, overtime pay, night differential, holiday
+        // premium, gross, SSS, PhilHealth, Pag-IBIG, late deduction, tax, net
+        private final long[] figures;
+
+        private Entry(int run, String employeeNumber, String startDate, String endDate,
+                      long inputHash, long[] figures) {
+            this.run = run;
+            this.employeeNumber = employeeNumber;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.inputHash = inputHash;
+            this.figures = figures;
+        }
+
+        public int getRun()               { return run; }
+        public String getEmployeeNumber() { return employeeNumber; }
+        public long getInputHash()        { return inputHash; }
+        public long getGrossPay()         { return figures[7]; }
+        public long getNetPay()           { return figures[13]; }
+
+        /** @return The recorded figures as a payroll result of the given employee */
+        public PayrollResult toResult(Employee employee) {
+            return new PayrollResult(employee, startDate, endDate, figures[0], figures[1], figures[2],
+                    figures[3], figures[4], figures[5], figures[6], figures[7], figures[8], figures[9],
+                    figures[10], figures[11], figures[12], figures[13]);
+        }
+
+        boolean sameFigures(PayrollResult r) {
+            return Arrays.equals(figures, figuresOf(r));
+        }
+    }
+
+    private static long[] figuresOf(PayrollResult r) {
+        return new long[]{r.getWorkedMinutes(), r.getLateMinutes(), r.getOvertimeMinutes(), r.getNightMinutes(),
+                r.getOvertimePay(), r.getNightDifferential(), r.getHolidayPremium(), r.getGrossPay(), r.getSss(),
+                r.getPhilHealth(), r.getPagIbig(), r.getLateDeduction(), r.getWithholdingTax(), r.getNetPay()};
+    }
+
+    // -----------------------------------------------------------------------
+    // RERUNS
+    // -----------------------------------------------------------------------
+
+    /**
+     * Starts a run of a pay period: reads the latest recorded result of every
+     * employee for the period and numbers the run after the last one in the ledger.
+     *
+     * @param startDate Start of pay period (YYYY-MM-DD)
+     * @param endDate   End of pay period (YYYY-MM-DD)
+     * @return The run, to be completed with its results
+     * @throws IOException If the ledger exists but cannot be read
+     */
+    public Rerun begin(String startDate, String endDate) throws IOException {
+        Map<String, Entry> latest = new LinkedHashMap<>();
+        int lastRun = 0;
+        String header = null;
+        String period = startDate + "," + endDate + ",";
+        File file = new File(filePath);
+        if (!file.exists()) {
+            return new Rerun(1, startDate, endDate, latest, null); // No ledger yet: every result is new
+        }
+        // A last line without a line break was cut off mid-write and may hold truncated amounts
+        boolean torn;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            torn = completeLength(channel) < channel.size();
+        }
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8), 64 * 1024)) {
+            long lineNumber = 0;
+            String next = in.readLine();
+            while (next != null) {
+                String line = next;
+                next = in.readLine();
+                lineNumber++;
+                if (next == null && torn) {
+                    PayrollMetrics.malformedRow(filePath, "incomplete ledger record");
+                    System.err.println("Skipping incomplete ledger record at line " + lineNumber + ": " + line);
+                    break;
+                }
+                if (line.startsWith("Run,")) {
+                    header = line;
+                    continue;
+                }
+                if (line.isEmpty()) continue;
+                // Only lines of this period are split; the others just give their run number
+                int runEnd = line.indexOf(',');
+                int periodStart = runEnd < 0 ? -1 : line.indexOf(',', runEnd + 1) + 1;
+                try {
+                    int run = Integer.parseInt(line.substring(0, Math.max(runEnd, 0)));
+                    lastRun = Math.max(lastRun, run);
+                    if (periodStart > 0 && line.startsWith(period, periodStart)) {
+                        Entry entry = parse(run, line);
+                        latest.remove(entry.employeeNumber); // keep file order of the latest entries
+                        latest.put(entry.employeeNumber, entry);
+                    }
+                } catch (IllegalArgumentException | ArithmeticException e) {
+                    PayrollMetrics.malformedRow(filePath, "invalid ledger record");
+                    System.err.println("Skipping invalid ledger record at line " + lineNumber + ": " + line);
+                }
+            }
+        }
+        return new Rerun(lastRun + 1, startDate, endDate, latest, header);
+    }
+
+    private static Entry parse(int run, String line) {
+        String[] f = line.split(",", -1);
+        boolean v1 = f.length == V1_COLUMNS;
+        if (f.length != COLUMNS && !v1) {
+            throw new IllegalArgumentException("Expected " + COLUMNS + " columns");
+        }
+        long[] figures = new long[FIGURES];
+        int column = 6;
+        int minutes = v1 ? 2 : 4;
+        for (int i = 0; i < minutes; i++) {
+            figures[i] = Long.parseLong(f[column++]);
+        }
+        for (int i = v1 ? 7 : 4; i < FIGURES; i++) {
+            figures[i] = Money.parse(f[column++]);
+        }
+        return new Entry(run, f[4], f[2], f[3], Long.parseUnsignedLong(f[5], 16), figures);
+    }
+
+    /** One run of a pay period: the previous results, then this run's results. */
+    public final class Rerun {
+        private final int run;
+        private final String startDate;
+        private final String endDate;
+        private final Map<String, Entry> previous;
+        private final String header; // last header line in the ledger, or null
+        private List<PayrollResult> results;
+        private boolean[] recomputed;
+        private int recomputedCount;
+
+        private Rerun(int run, String startDate, String endDate, Map<String, Entry> previous, String header) {
+            this.run = run;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.previous = previous;
+            this.header = header;
+        }
+
+        /** @return The latest recorded result of an employee for this period, or null */
+        public Entry previous(String employeeNumber) {
+            return previous.get(employeeNumber);
+        }
+
+        /**
+         * Records the run's results and appends the recomputed ones to the ledger.
+         *
+         * @param results     Every employee's result, reused or recomputed
+         * @param inputHashes Input hash of each result
+         * @param recomputed  Whether each result was recomputed (and so is appended)
+         * @throws IOException If the ledger cannot be written
+         */
+        public void complete(List<PayrollResult> results, long[] inputHashes, boolean[] recomputed)
+                throws IOException {
+            this.results = results;
+            this.recomputed = recomputed;
+            this.recomputedCount = 0;
+            for (boolean r : recomputed) {
+                if (r) recomputedCount++;
+            }
+            if (recomputedCount > 0) {
+                append(run, results, inputHashes, recomputed, !HEADER.equals(header));
+            }
+        }
+
+        public int getRun()                    { return run; }
+        public List<PayrollResult> getResults() { return results; }
+        public int getRecomputedCount()        { return recomputedCount; }
+        public int getReusedCount()            { return results.size() - recomputedCount; }
+
+        /**
+         * Writes the changes since the previous run of the period, one row per
+         * employee that is NEW, CHANGED, REMOVED or recomputed with the SAME RESULT.
+         * Employees whose inputs did not change are left out.
+         *
+         * @param path Output path of the diff report
+         * @return Number of NEW, CHANGED and REMOVED employees
+         * @throws IOException If the report cannot be written
+         */
+        public int writeDiff(String path) throws IOException {
+            mkdirsFor(path);
+            int changes = 0;
+            Set<String> present = new HashSet<>();
+            try (BufferedWriter out = new BufferedWriter(new FileWriter(path), 64 * 1024)) {
+                out.write(DIFF_HEADER);
+                out.newLine();
+                for (int i = 0; i < results.size(); i++) {
+                    PayrollResult r = results.get(i);
+                    String empNum = r.getEmployee().getEmployeeNumber();
+                    present.add(empNum);
+                    if (!recomputed[i]) continue;
+                    Entry before = previous.get(empNum);
+                    if (before == null) {
+                        writeDiffRow(out, empNum, "NEW", null, r);
+                        changes++;
+                    } else if (before.sameFigures(r)) {
+                        writeDiffRow(out, empNum, "SAME RESULT", before, r);
+                    } else {
+                        writeDiffRow(out, empNum, "CHANGED", before, r);
+                        changes++;
+                    }
+                }
+                for (Entry before : previous.values()) {
+                    if (!present.contains(before.employeeNumber)) {
+                        writeDiffRow(out, before.employeeNumber, "REMOVED", before, null);
+                        changes++;
+                    }
+                }
+            }
+            return changes;
+        }
+    }
+
+    private static void writeDiffRow(BufferedWriter out, String empNum, String change,
+                                     Entry before, PayrollResult after) throws IOException {
+        long netBefore = before == null ? 0 : before.getNetPay();
+        long netAfter = after == null ? 0 : after.getNetPay();
+        out.write(empNum);
+        out.write(',');
+        out.write(change);
+        out.write(',');
+        out.write(before == null ? "" : Money.toPlainString(before.getGrossPay()));
+        out.write(',');
+        out.write(after == null ? "" : Money.toPlainString(after.getGrossPay()));
+        out.write(',');
+        out.write(before == null ? "" : Money.toPlainString(netBefore));
+        out.write(',');
+        out.write(after == null ? "" : Money.toPlainString(netAfter));
+        out.write(',');
+        out.write(Money.toPlainString(netAfter - netBefore));
+        out.newLine();
+    }
+
+    /**
+     * Appends results to the ledger and forces them to disk. A header is written
+     * to a new ledger, and before the results when the ledger's last header has
+     * other columns. A last line cut off by an interrupted run is removed first,
+     * so it never ends up in the middle of the file.
+     */
+    private void append(int run, List<PayrollResult> results, long[] inputHashes, boolean[] selected,
+                        boolean writeHeader) throws IOException {
+        mkdirsFor(filePath);
+        String recordedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).toString();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long length = completeLength(channel);
+            if (length < channel.size()) {
+                System.err.println("Removing incomplete last ledger record from " + filePath);
+                channel.truncate(length);
+            }
+            channel.position(length);
+            BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                    Channels.newOutputStream(channel), StandardCharsets.UTF_8), 64 * 1024);
+            if (length == 0 || writeHeader) {
+                out.write(HEADER);
+                out.newLine();
+            }
+            for (int i = 0; i < results.size(); i++) {
+                if (!selected[i]) continue;
+                PayrollResult r = results.get(i);
+                out.write(Integer.toString(run));
+                out.write(',');
+                out.write(recordedAt);
+                out.write(',');
+                out.write(r.getStartDate());
+                out.write(',');
+                out.write(r.getEndDate());
+                out.write(',');
+                out.write(r.getEmployee().getEmployeeNumber());
+                out.write(',');
+                out.write(Long.toHexString(inputHashes[i]));
+                out.write(',');
+                out.write(Long.toString(r.getWorkedMinutes()));
+                out.write(',');
+                out.write(Long.toString(r.getLateMinutes()));
+                out.write(',');
+                out.write(Long.toString(r.getOvertimeMinutes()));
+                out.write(',');
+                out.write(Long.toString(r.getNightMinutes()));
+                long[] amounts = {r.getOvertimePay(), r.getNightDifferential(), r.getHolidayPremium(),
+                        r.getGrossPay(), r.getSss(), r.getPhilHealth(), r.getPagIbig(),
+                        r.getLateDeduction(), r.getWithholdingTax(), r.getNetPay()};
+                for (long amount : amounts) {
+                    out.write(',');
+                    out.write(Money.toPlainString(amount));
+                }
+                out.newLine();
+            }
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    /** @return Length of the file up to and including its last line break */
+    private static long completeLength(FileChannel channel) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        long end = channel.size();
+        while (end > 0) {
+            long from = Math.max(0, end - buf.capacity());
+            buf.clear().limit((int) (end - from));
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, from + buf.position()) < 0) break;
+            }
+            for (int i = buf.position() - 1; i >= 0; i--) {
+                if (buf.get(i) == '\n') {
+                    return from + i + 1;
+                }
+            }
+            end = from;
+        }
+        return 0;
+    }
+
+    private static void mkdirsFor(String path) {
+        File parent = new File(path).getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+    }
+
+    // -----------------------------------------------------------------------
+    // INPUT HASHES
+    // -----------------------------------------------------------------------
+
+    /**
+     * Combines everything one payroll result depends on into a single hash.
+     *
+     * @param employee        The employee record
+     * @param attendanceHash  AttendanceSource.fingerprint of the employee and period
+     * @param scheduleHash    Hash of the employee's shift (ShiftSchedule.weekHash)
+     * @param holidayHash     Hash of the period's holidays (HolidayCalendar.hash)
+     * @param tablesHash      Hash of the deduction tables (PayrollCalculator.getTablesHash)
+     * @return 64-bit input hash
+     */
+    public static long inputHash(Employee employee, long attendanceHash, long scheduleHash,
+                                 long holidayHash, long tablesHash) {
+        long h = hash(SEED, RULES_VERSION);
+        h = hash(h, employeeHash(employee));
+        h = hash(h, attendanceHash);
+        h = hash(h, scheduleHash);
+        h = hash(h, holidayHash);
+        return hash(h, tablesHash);
+    }
+
+    /** @return Hash of every column of an employee row */
+    public static long employeeHash(Employee e) {
+        long h = SEED;
+        String[] text = {e.getEmployeeNumber(), e.getLastName(), e.getFirstName(), e.getBirthday(),
+                e.getAddress(), e.getPhoneNumber(), e.getSssNumber(), e.getPhilHealthNumber(),
+                e.getTin(), e.getPagIbigNumber(), e.getStatus(), e.getPosition(),
+                e.getImmediateSupervisor()};
+        for (String s : text) {
+            h = hash(h, s);
+        }
+        long[] amounts = {e.getBasicMonthlySalaryCents(), e.getRiceSubsidyCents(),
+                e.getPhoneAllowanceCents(), e.getClothingAllowanceCents(),
+                e.getGrossSemiMonthlyRateCents(), e.getHourlyRateCents()};
+        for (long amount : amounts) {
+            h = hash(h, amount);
+        }
+        return h;
+    }
+
+    /**
+     * Hash of one attendance row. Sources add the hashes of an employee's rows,
+     * so the sum does not depend on the order the rows are stored in.
+     */
+    static long rowHash(int epochDay, int minuteIn, int minuteOut) {
+        return hash(hash(hash(SEED, epochDay), minuteIn), minuteOut);
+    }
+
+    /** Mixes one value into a running hash. */
+    static long hash(long h, long value) {
+        h = (h ^ value) * MULTIPLIER;
+        return h ^ (h >>> 29);
+    }
+
+    private static long hash(long h, String s) {
+        if (s == null) {
+            return hash(h, -1);
+        }
+        h = hash(h, s.length());
+        for (int i = 0; i < s.length(); i++) {
+            h = hash(h, s.charAt(i));
+        }
+        return h;
+    }
+}
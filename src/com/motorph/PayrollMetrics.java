@@ -0,0 +1,297 @@
+package com.motorph;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * PayrollMetrics.java - Process-wide timings of the payroll stages and counters of
+ * skipped input rows. Timings keep count, total, max and an approximate latency
+ * histogram (log-linear buckets, within 1/8 of the true value) for percentiles.
+ * All recording methods are lock-free and safe to call from worker threads.
+ *
+ * Usage:
+ *   long t0 = PayrollMetrics.start();
+ *   ... work ...
+ *   PayrollMetrics.record(PayrollMetrics.Stage.CSV_LOAD, t0);
+ */
+public final class PayrollMetrics implements PayrollMetricsMXBean {
+
+    /** Instrumented stages of a payroll run. */
+    public enum Stage {
+        CSV_LOAD("csv.load"),
+        ATTENDANCE("attendance.aggregate"),
+        DEDUCTIONS("deduction.compute"),
+        PAYSLIP_RENDER("payslip.render");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    /** Snapshot of one stage's timings, in nanoseconds. */
+    public static final class StageStats {
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long p50Nanos;
+        private final long p90Nanos;
+        private final long p99Nanos;
+
+        StageStats(long count, long totalNanos, long maxNanos, long p50Nanos, long p90Nanos, long p99Nanos) {
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.p50Nanos = p50Nanos;
+            this.p90Nanos = p90Nanos;
+            this.p99Nanos = p99Nanos;
+        }
+
+        public long getCount()      { return count; }
+        public long getTotalNanos() { return totalNanos; }
+        public long getMaxNanos()   { return maxNanos; }
+        public long getP50Nanos()   { return p50Nanos; }
+        public long getP90Nanos()   { return p90Nanos; }
+        public long getP99Nanos()   { return p99Nanos; }
+    }
+
+    private static final int SUB_BITS = 3;                 // 8 buckets per power of two
+    private static final int BUCKETS = 64 << SUB_BITS;
+
+    /** Timing accumulator of one stage. */
+    private static final class Timer {
+        final LongAdder count = new LongAdder();
+        final LongAdder total = new LongAdder();
+        final AtomicLong max = new AtomicLong();
+        final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        void record(long nanos) {
+            count.increment();
+            total.add(nanos);
+            long m;
+            while (nanos > (m = max.get()) && !max.compareAndSet(m, nanos)) {
+                // retry
+            }
+            histogram.incrementAndGet(bucket(nanos));
+        }
+
+        StageStats snapshot() {
+            long[] counts = new long[BUCKETS];
+            long n = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram.get(i);
+                n += counts[i];
+            }
+            long maxNanos = max.get();
+            return new StageStats(count.sum(), total.sum(), maxNanos,
+                    percentile(counts, n, 0.50, maxNanos),
+                    percentile(counts, n, 0.90, maxNanos),
+                    percentile(counts, n, 0.99, maxNanos));
+        }
+
+        void reset() {
+            count.reset();
+            total.reset();
+            max.set(0);
+            for (int i = 0; i < BUCKETS; i++) {
+                histogram.set(i, 0);
+            }
+        }
+    }
+
+    private static final PayrollMetrics INSTANCE = new PayrollMetrics();
+    private static final String OBJECT_NAME = "com.motorph:type=PayrollMetrics";
+
+    private final Timer[] timers = new Timer[Stage.values().length];
+    private final ConcurrentHashMap<String, LongAdder> malformed = new ConcurrentHashMap<>();
+    private volatile boolean registered;
+
+    private PayrollMetrics() {
+        for (int i = 0; i < timers.length; i++) {
+            timers[i] = new Timer();
+        }
+    }
+
+    /** @return The process-wide metrics */
+    public static PayrollMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server. Safe to call repeatedly.
+     */
+    public static synchronized void registerMBean() {
+        if (INSTANCE.registered) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+            INSTANCE.registered = true;
+        } catch (JMException e) {
+            System.err.println("Could not register payroll metrics MBean: " + e.getMessage());
+        }
+    }
+
+    /** @return Start timestamp to pass to record() */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the time elapsed since a start() timestamp.
+     *
+     * @param stage       Stage the time is charged to
+     * @param startNanos  Value returned by start()
+     */
+    public static void record(Stage stage, long startNanos) {
+        recordNanos(stage, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records a time measured by the caller, such as the sum of several intervals.
+     *
+     * @param stage Stage the time is charged to
+     * @param nanos Elapsed time in nanoseconds
+     */
+    public static void recordNanos(Stage stage, long nanos) {
+        INSTANCE.timers[stage.ordinal()].record(nanos);
+    }
+
+    /**
+     * Counts one skipped input row.
+     *
+     * @param file   File the row came from (e.g., "data/attendance.csv")
+     * @param reason Why it was skipped (e.g., "invalid date or time")
+     */
+    public static void malformedRow(String file, String reason) {
+        INSTANCE.malformed.computeIfAbsent(file + ": " + reason, k -> new LongAdder()).increment();
+    }
+
+    /** @return Timing statistics of one stage */
+    public static StageStats stats(Stage stage) {
+        return INSTANCE.timers[stage.ordinal()].snapshot();
+    }
+
+    // -----------------------------------------------------------------------
+    // MXBEAN VIEW
+    // -----------------------------------------------------------------------
+
+    @Override
+    public Map<String, StageStats> getStages() {
+        Map<String, StageStats> stages = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            stages.put(stage.getLabel(), timers[stage.ordinal()].snapshot());
+        }
+        return stages;
+    }
+
+    @Override
+    public Map<String, Long> getMalformedRows() {
+        Map<String, Long> rows = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : malformed.entrySet()) {
+            rows.put(entry.getKey(), entry.getValue().sum());
+        }
+        return rows;
+    }
+
+    @Override
+    public long getMalformedRowTotal() {
+        long total = 0;
+        for (LongAdder count : malformed.values()) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public String getSummary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== PAYROLL METRICS ===\n");
+        sb.append(String.format("  %-22s %10s %12s %10s %10s %10s %10s%n",
+                "Stage", "Count", "Total ms", "p50 us", "p90 us", "p99 us", "Max us"));
+        for (Map.Entry<String, StageStats> entry : getStages().entrySet()) {
+            StageStats s = entry.getValue();
+            if (s.getCount() == 0) continue;
+            sb.append(String.format("  %-22s %,10d %,12.1f %,10.1f %,10.1f %,10.1f %,10.1f%n",
+                    entry.getKey(), s.getCount(), s.getTotalNanos() / 1e6, s.getP50Nanos() / 1e3,
+                    s.getP90Nanos() / 1e3, s.getP99Nanos() / 1e3, s.getMaxNanos() / 1e3));
+        }
+        Map<String, Long> rows = getMalformedRows();
+        if (rows.isEmpty()) {
+            sb.append("  Skipped rows: none\n");
+        } else {
+            sb.append(String.format("  Skipped rows: %,d%n", getMalformedRowTotal()));
+            for (Map.Entry<String, Long> entry : rows.entrySet()) {
+                sb.append(String.format("    %-50s %,10d%n", entry.getKey(), entry.getValue()));
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (Timer timer : timers) {
+            timer.reset();
+        }
+        malformed.clear();
+    }
+
+    // -----------------------------------------------------------------------
+    // HISTOGRAM
+    // -----------------------------------------------------------------------
+
+    /**
+     * Maps a duration to a log-linear bucket: values below 2^SUB_BITS get their own
+     * bucket, larger values are split into 2^SUB_BITS buckets per power of two.
+     */
+    static int bucket(long nanos) {
+        if (nanos < (1L << SUB_BITS)) {
+            return (int) Math.max(nanos, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+        return ((exponent - SUB_BITS + 1) << SUB_BITS) + sub;
+    }
+
+    /** Upper bound (inclusive) of the values that fall in a bucket. */
+    static long bucketUpperBound(int bucket) {
+        if (bucket < (1 << SUB_BITS)) {
+            return bucket;
+        }
+        int exponent = (bucket >>> SUB_BITS) + SUB_BITS - 1;
+        long sub = bucket & ((1 << SUB_BITS) - 1);
+        long lower = (1L << exponent) + (sub << (exponent - SUB_BITS));
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    private static long percentile(long[] counts, long n, double fraction, long maxNanos) {
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(n * fraction);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+}
@@ -0,0 +1,25 @@
+package com.motorph;
+
+import java.util.Map;
+
+/**
+ * PayrollMetricsMXBean.java - JMX view of PayrollMetrics, registered as
+ * "com.motorph:type=PayrollMetrics" (browse it with jconsole or VisualVM).
+ */
+public interface PayrollMetricsMXBean {
+
+    /** @return Timing statistics keyed by stage name (e.g., "csv.load") */
+    Map<String, PayrollMetrics.StageStats> getStages();
+
+    /** @return Skipped rows keyed by "file: reason" */
+    Map<String, Long> getMalformedRows();
+
+    /** @return Total skipped rows across all files */
+    long getMalformedRowTotal();
+
+    /** @return Human-readable summary of all stages and counters */
+    String getSummary();
+
+    /** Clears all timings and counters. */
+    void reset();
+}
@@ -0,0 +1,93 @@
+package com.motorph;
+
+/**
+ * PayrollResult.java - Computed payroll figures of one employee for one pay period.
+ * Holds the outputs of FR-02 to FR-08 so they can be displayed, printed on a
+ * payslip or written to the payroll register. All amounts are long centavos (see Money).
+ */
+public class PayrollResult {
+
+    private final Employee employee;
+    private final String startDate;
+    private final String endDate;
+    private final long workedMinutes;
+    private final long lateMinutes;
+    private final long overtimeMinutes;
+    private final long nightMinutes;
+    private final long overtimePay;
+    private final long nightDifferential;
+    private final long holidayPremium;
+    private final long grossPay;
+    private final long sss;
+    private final long philHealth;
+    private final long pagIbig;
+    private final long lateDeduction;
+    private final long withholdingTax;
+    private final long netPay;
+
+    // Constructor
+    public PayrollResult(Employee employee, String startDate, String endDate,
+                         long workedMinutes, long lateMinutes, long overtimeMinutes, long nightMinutes,
+                         long overtimePay, long nightDifferential, long holidayPremium, long grossPay,
+                         long sss, long philHealth, long pagIbig,
+                         long lateDeduction, long withholdingTax, long netPay) {
+        this.employee = employee;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.workedMinutes = workedMinutes;
+        this.lateMinutes = lateMinutes;
+        this.overtimeMinutes = overtimeMinutes;
+        this.nightMinutes = nightMinutes;
+        this.overtimePay = overtimePay;
+        this.nightDifferential = nightDifferential;
+        this.holidayPremium = holidayPremium;
+        this.grossPay = grossPay;
+        this.sss = sss;
+        this.philHealth = philHealth;
+        this.pagIbig = pagIbig;
+        this.lateDeduction = lateDeduction;
+        this.withholdingTax = withholdingTax;
+        this.netPay = netPay;
+    }
+
+    // Getters
+    public Employee getEmployee()       { return employee; }
+    public String getStartDate()        { return startDate; }
+    public String getEndDate()          { return endDate; }
+    public long getWorkedMinutes()      { return workedMinutes; }
+    public double getHoursWorked()      { return workedMinutes / 60.0; }
+    public long getLateMinutes()        { return lateMinutes; }
+    public long getOvertimeMinutes()    { return overtimeMinutes; }
+    public double getOvertimeHours()    { return overtimeMinutes / 60.0; }
+    public long getNightMinutes()       { return nightMinutes; }
+    public double getNightHours()       { return nightMinutes / 60.0; }
+    public long getOvertimePay()        { return overtimePay; }
+    public long getNightDifferential()  { return nightDifferential; }
+    /** @return Premium for regular hours on rest days and holidays */
+    public long getHolidayPremium()     { return holidayPremium; }
+    public long getGrossPay()           { return grossPay; }
+    public long getSss()                { return sss; }
+    public long getPhilHealth()         { return philHealth; }
+    public long getPagIbig()            { return pagIbig; }
+    public long getLateDeduction()      { return lateDeduction; }
+    public long getWithholdingTax()     { return withholdingTax; }
+    public long getNetPay()             { return netPay; }
+
+    /** @return Gross pay for the regular hours at the hourly rate, without overtime and premiums */
+    public long getBasicPay() {
+        return grossPay - overtimePay - nightDifferential - holidayPremium;
+    }
+
+    public String getPayPeriod() {
+        return startDate + " to " + endDate;
+    }
+
+    /** @return Gross pay minus SSS, PhilHealth, Pag-IBIG and late deductions */
+    public long getTaxableIncome() {
+        return grossPay - sss - philHealth - pagIbig - lateDeduction;
+    }
+
+    public long getTotalDeductions() {
+        return sss + philHealth + pagIbig + withholdingTax + lateDeduction;
+    }
+}
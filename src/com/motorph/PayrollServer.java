@@ -0,0 +1,320 @@
+package com.motorph;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PayrollServer.java - Embedded HTTP service for employee lookup (FR-01), payroll
+ * computation (FR-02 to FR-08) and payslips (FR-09), built on the JDK HTTP server.
+ * Employees, attendance and deduction tables are loaded once at startup and shared
+ * by all requests; each is reloaded only when its file changes. Requests run on
+ * virtual threads when the JVM supports them (Java 21+), otherwise on a fixed pool.
+ *
+ * Endpoints (all GET):
+ *   /employees[?status=&position=&supervisor=]      Employee list (JSON)
+ *   /employees/{employeeNumber}                     One employee (JSON)
+ *   /payroll/{employeeNumber}?start=&end=           Payroll figures (JSON)
+ *   /payslip/{employeeNumber}?start=&end=[&format=txt|csv|json]
+ *   /health                                         "ok"
+ *   /metrics                                        Stage timings and cache statistics
+ * Dates are YYYY-MM-DD.
+ *
+ * Usage: java com.motorph.PayrollServer [PORT] [THREADS]
+ */
+public class PayrollServer {
+
+    private static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 1024;
+
+    private final EmployeeRepository employeeRepository;
+    private final AttendanceProcessor attendanceProcessor;
+    private final PayrollCalculator payrollCalculator;
+    private final PayrollCache payrollCache;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    /**
+     * Creates the server and loads all data. Call start() to accept requests.
+     *
+     * @param port    TCP port (0 picks a free port)
+     * @param threads Pool size used when virtual threads are unavailable
+     * @throws IOException If the port cannot be bound
+     */
+    public PayrollServer(int port, int threads) throws IOException {
+        this.employeeRepository = new EmployeeRepository("data/employees.csv");
+        this.attendanceProcessor = new AttendanceProcessor();
+        this.payrollCalculator = new PayrollCalculator();
+        this.payrollCache = new PayrollCache(4096);
+        employeeRepository.findAll();
+        attendanceProcessor.preload();
+
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newPlatformThreadPool(threads);
+
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        server.setExecutor(executor);
+        server.createContext("/employees", handler(this::employees));
+        server.createContext("/payroll", handler(this::payroll));
+        server.createContext("/payslip", handler(this::payslip));
+        server.createContext("/health", handler(ex -> new Response(200, "text/plain", "ok\n")));
+        server.createContext("/metrics", handler(ex -> new Response(200, "text/plain",
+                PayrollMetrics.get().getSummary() + payrollCache + "\n")));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /** Stops accepting requests, waiting up to the given number of seconds for open ones. */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /** @return The bound port */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /** @return Whether requests run on virtual threads */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    // -----------------------------------------------------------------------
+    // ENDPOINTS
+    // -----------------------------------------------------------------------
+
+    /** A status code, content type and body. */
+    private static final class Response {
+        final int status;
+        final String contentType;
+        final String body;
+
+        Response(int status, String contentType, String body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        static Response error(int status, String message) {
+            StringBuilder json = new StringBuilder("{\"error\":");
+            PayslipRenderer.appendJsonString(message, json);
+            return new Response(status, "application/json", json.append("}\n").toString());
+        }
+    }
+
+    private interface Endpoint {
+        Response handle(HttpExchange exchange);
+    }
+
+    private Response employees(HttpExchange exchange) {
+        String empNum = pathParameter(exchange);
+        if (empNum != null) {
+            Employee emp = employeeRepository.findByNumber(empNum);
+            if (emp == null) {
+                return Response.error(404, "Employee #" + empNum + " not found");
+            }
+            StringBuilder json = new StringBuilder(512);
+            appendEmployeeJson(emp, json);
+            return new Response(200, "application/json", json.append('\n').toString());
+        }
+
+        Map<String, String> query = query(exchange);
+        List<Employee> list;
+        if (query.containsKey("status")) {
+            list = employeeRepository.findByStatus(query.get("status"));
+        } else if (query.containsKey("position")) {
+            list = employeeRepository.findByPosition(query.get("position"));
+        } else if (query.containsKey("supervisor")) {
+            list = employeeRepository.findBySupervisor(query.get("supervisor"));
+        } else {
+            list = employeeRepository.findAll();
+        }
+        StringBuilder json = new StringBuilder(256 * (list.size() + 1));
+        json.append('[');
+        for (int i = 0; i < list.size(); i++) {
+            if (i > 0) json.append(',');
+            appendEmployeeJson(list.get(i), json);
+        }
+        return new Response(200, "application/json", json.append("]\n").toString());
+    }
+
+    private Response payroll(HttpExchange exchange) {
+        return withPayroll(exchange, PayslipRenderer.Format.JSON);
+    }
+
+    private Response payslip(HttpExchange exchange) {
+        String format = query(exchange).getOrDefault("format", "txt");
+        try {
+            return withPayroll(exchange, PayslipRenderer.Format.fromName(format));
+        } catch (IllegalArgumentException e) {
+            return Response.error(400, e.getMessage());
+        }
+    }
+
+    /** Computes (or reuses) the payroll named by the request and renders it. */
+    private Response withPayroll(HttpExchange exchange, PayslipRenderer.Format format) {
+        String empNum = pathParameter(exchange);
+        if (empNum == null) {
+            return Response.error(404, "Missing employee number");
+        }
+        Employee emp = employeeRepository.findByNumber(empNum);
+        if (emp == null) {
+            return Response.error(404, "Employee #" + empNum + " not found");
+        }
+        Map<String, String> query = query(exchange);
+        String startDate = query.get("start");
+        String endDate = query.get("end");
+        try {
+            if (startDate == null || endDate == null) {
+                return Response.error(400, "Parameters start and end (YYYY-MM-DD) are required");
+            }
+            if (LocalDate.parse(endDate).isBefore(LocalDate.parse(startDate))) {
+                return Response.error(400, "Pay period ends before it starts");
+            }
+        } catch (DateTimeParseException e) {
+            return Response.error(400, "Invalid date: " + e.getParsedString());
+        }
+
+        PayrollResult result = payrollCache.get(empNum, startDate, endDate, () ->
+                payrollCalculator.computePayroll(emp,
+                        attendanceProcessor.computeAttendance(empNum, startDate, endDate),
+                        startDate, endDate));
+        String contentType = format == PayslipRenderer.Format.JSON ? "application/json"
+                : format == PayslipRenderer.Format.CSV ? "text/csv" : "text/plain";
+        return new Response(200, contentType, new PayslipRenderer(format).render(result));
+    }
+
+    private static void appendEmployeeJson(Employee emp, StringBuilder json) {
+        String[][] fields = {
+            {"employeeNumber", emp.getEmployeeNumber()}, {"lastName", emp.getLastName()},
+            {"firstName", emp.getFirstName()}, {"birthday", emp.getBirthday()},
+            {"position", emp.getPosition()}, {"status", emp.getStatus()},
+            {"immediateSupervisor", emp.getImmediateSupervisor()}, {"sssNumber", emp.getSssNumber()},
+            {"philHealthNumber", emp.getPhilHealthNumber()}, {"tin", emp.getTin()},
+            {"pagIbigNumber", emp.getPagIbigNumber()}
+        };
+        json.append('{');
+        for (String[] field : fields) {
+            json.append('"').append(field[0]).append("\":");
+            if (field[1] == null) {
+                json.append("null");
+            } else {
+                PayslipRenderer.appendJsonString(field[1], json);
+            }
+            json.append(',');
+        }
+        json.append("\"basicMonthlySalary\":");
+        Money.appendTo(json, emp.getBasicMonthlySalaryCents(), false);
+        json.append(",\"hourlyRate\":");
+        Money.appendTo(json, emp.getHourlyRateCents(), false);
+        json.append('}');
+    }
+
+    // -----------------------------------------------------------------------
+    // HTTP PLUMBING
+    // -----------------------------------------------------------------------
+
+    private static HttpHandler handler(Endpoint endpoint) {
+        return exchange -> {
+            Response response;
+            try {
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    response = Response.error(405, "Only GET is supported");
+                } else {
+                    response = endpoint.handle(exchange);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Request failed: " + exchange.getRequestURI() + ": " + e);
+                response = Response.error(500, "Internal error");
+            }
+            byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", response.contentType + "; charset=utf-8");
+            exchange.sendResponseHeaders(response.status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        };
+    }
+
+    /** @return The path segment after the context (e.g., "10001" in /payroll/10001), or null */
+    private static String pathParameter(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        String rest = path.substring(exchange.getHttpContext().getPath().length());
+        while (rest.startsWith("/")) rest = rest.substring(1);
+        while (rest.endsWith("/")) rest = rest.substring(0, rest.length() - 1);
+        return rest.isEmpty() ? null : rest;
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    /**
+     * Returns Executors.newVirtualThreadPerTaskExecutor() when running on Java 21+,
+     * looked up reflectively so the code still compiles and runs on Java 11.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null; // Not available (or preview-only) on this JVM
+        }
+    }
+
+    private static ExecutorService newPlatformThreadPool(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, task -> {
+            Thread t = new Thread(task, "payroll-http-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port    = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int threads = args.length > 1 ? Integer.parseInt(args[1])
+                : Math.max(64, Runtime.getRuntime().availableProcessors() * 16);
+
+        PayrollMetrics.registerMBean();
+        long t0 = System.nanoTime();
+        PayrollServer server = new PayrollServer(port, threads);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+        System.out.printf("MotorPH payroll service on http://localhost:%d (%s, loaded in %.3f s)%n",
+                server.getPort(), server.usesVirtualThreads() ? "virtual threads" : threads + " threads",
+                (System.nanoTime() - t0) / 1e9);
+    }
+}
@@ -0,0 +1,475 @@
+package com.motorph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PayslipRenderer.java - Renders payslips (FR-09) as text, CSV or JSON into a
+ * reusable buffer and writes them to files in bulk through a FileChannel.
+ * The text layout is compiled once into literal and field segments, so rendering
+ * a payslip is a walk over the segments with no format-string parsing.
+ * A renderer keeps its buffers between calls and is not thread-safe; the file
+ * buffers are only allocated once it writes a file, so per-request renderers are cheap.
+ */
+public class PayslipRenderer {
+
+    /** Output format and its file extension. */
+    public enum Format {
+        TEXT("txt"), CSV("csv"), JSON("json");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() { return extension; }
+
+        public static Format fromName(String name) {
+            for (Format f : values()) {
+                if (f.name().equalsIgnoreCase(name) || f.extension.equalsIgnoreCase(name)) {
+                    return f;
+                }
+            }
+            throw new IllegalArgumentException("Unknown payslip format: " + name);
+        }
+    }
+
+    private static final String LINE    = "============================================";
+    private static final String DIVIDER = "--------------------------------------------";
+
+    /*
+     * Text payslip layout. {field} inserts a value; {field:N} right-aligns it to N chars.
+     */
+    private static final String TEXT_TEMPLATE = String.join("\n",
+            LINE,
+            "       MOTORPH PAYROLL SYSTEM",
+            "         EMPLOYEE PAYSLIP",
+            LINE,
+            "Pay Period  : {period}",
+            DIVIDER,
+            "EMPLOYEE DETAILS",
+            "  Employee No  : {empNo}",
+            "  Name         : {name}",
+            "  Position     : {position}",
+            "  Status       : {status}",
+            DIVIDER,
+            "ATTENDANCE",
+            "  Hours Worked : {hours} hrs",
+            "  Overtime     : {overtimeHours} hrs",
+            DIVIDER,
+            "EARNINGS",
+            "  Basic Pay              PHP {basic:10}",
+            "  Overtime Pay           PHP {overtime:10}",
+            "  Night Differential     PHP {night:10}",
+            "  Holiday Premium        PHP {premium:10}",
+            "  Gross Pay              PHP {gross:10}",
+            DIVIDER,
+            "DEDUCTIONS",
+            "  SSS Contribution       PHP {sss:10}",
+            "  PhilHealth             PHP {philHealth:10}",
+            "  Pag-IBIG               PHP {pagIbig:10}",
+            "  Withholding Tax        PHP {tax:10}",
+            "  Late/Undertime         PHP {late:10}",
+            "  Total Deductions       PHP {totalDeductions:10}",
+            LINE,
+            "  NET PAY                PHP {net:10}",
+            LINE,
+            "",
+            "");
+
+    private static final String CSV_HEADER = "Employee #,Name,Position,Status,Pay Period Start,"
+            + "Pay Period End,Hours Worked,Overtime Hours,Basic Pay,Overtime Pay,Night Differential,"
+            + "Holiday Premium,Gross Pay,SSS,PhilHealth,Pag-IBIG,Withholding Tax,"
+            + "Late Deduction,Total Deductions,Net Pay";
+
+    // Field ids used by compiled segments
+    private static final int F_PERIOD = 0, F_EMP_NO = 1, F_NAME = 2, F_POSITION = 3, F_STATUS = 4,
+            F_HOURS = 5, F_GROSS = 6, F_SSS = 7, F_PHILHEALTH = 8, F_PAGIBIG = 9, F_TAX = 10,
+            F_LATE = 11, F_TOTAL_DEDUCTIONS = 12, F_NET = 13, F_OVERTIME_HOURS = 14, F_BASIC = 15,
+            F_OVERTIME = 16, F_NIGHT = 17, F_PREMIUM = 18;
+    private static final String[] FIELD_NAMES = {"period", "empNo", "name", "position", "status",
+            "hours", "gross", "sss", "philHealth", "pagIbig", "tax", "late", "totalDeductions", "net",
+            "overtimeHours", "basic", "overtime", "night", "premium"};
+
+    /** One compiled piece of the layout: literal text, or a field with a width. */
+    private static final class Segment {
+        final String literal;
+        final int field;
+        final int width;
+
+        Segment(String literal, int field, int width) {
+            this.literal = literal;
+            this.field = field;
+            this.width = width;
+        }
+    }
+
+    private static final Segment[] TEXT_LAYOUT = compile(TEXT_TEMPLATE.replace("\n", System.lineSeparator()));
+
+    private static final int FLUSH_THRESHOLD = 256 * 1024; // chars buffered before writing
+
+    private final Format format;
+    private final StringBuilder buffer = new StringBuilder(2048); // grows to FLUSH_THRESHOLD on bulk writes
+    private ByteBuffer bytes; // allocated on the first file write
+    // Lone surrogates in a name are written as '?', as String.getBytes() would
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final StringBuilder field = new StringBuilder(32);
+
+    public PayslipRenderer(Format format) {
+        this.format = format;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Renders one payslip and returns it as a string (e.g., for the console).
+     *
+     * @param result Computed payroll of one employee for one pay period
+     * @return Rendered payslip
+     */
+    public String render(PayrollResult result) {
+        buffer.setLength(0);
+        appendHeader(buffer);
+        appendPayslip(result, buffer);
+        String text = buffer.toString();
+        buffer.setLength(0);
+        return text;
+    }
+
+    /**
+     * Appends the CSV header line; text and JSON payslips have no header.
+     *
+     * @param out Destination buffer
+     */
+    public void appendHeader(StringBuilder out) {
+        if (format == Format.CSV) {
+            out.append(CSV_HEADER).append(System.lineSeparator());
+        }
+    }
+
+    /**
+     * Appends one rendered payslip to a buffer. CSV output is one row without header;
+     * JSON output is one object without a trailing separator.
+     *
+     * @param result Computed payroll
+     * @param out    Destination buffer
+     */
+    public void appendPayslip(PayrollResult result, StringBuilder out) {
+        long t0 = PayrollMetrics.start();
+        PayrollEvents.PayslipRender event = PayrollEvents.beginPayslipRender();
+        int from = out.length();
+        switch (format) {
+            case TEXT:
+                for (Segment seg : TEXT_LAYOUT) {
+                    if (seg.literal != null) {
+                        out.append(seg.literal);
+                    } else {
+                        appendField(result, seg.field, seg.width, out);
+                    }
+                }
+                break;
+            case CSV:
+                appendCsvRow(result, out);
+                break;
+            default:
+                appendJsonObject(result, out);
+                break;
+        }
+        PayrollMetrics.record(PayrollMetrics.Stage.PAYSLIP_RENDER, t0);
+        if (event != null) {
+            event.record(result, format, out.length() - from);
+        }
+    }
+
+    /**
+     * Writes all payslips into one file (text pages, one CSV with a header,
+     * or one JSON array).
+     *
+     * @param results Payroll results to render
+     * @param file    Output file
+     * @throws IOException If the file cannot be written
+     */
+    public void writeCombined(List<PayrollResult> results, Path file) throws IOException {
+        createParent(file);
+        try (FileChannel channel = openForWrite(file)) {
+            buffer.setLength(0);
+            if (format == Format.CSV) {
+                buffer.append(CSV_HEADER).append(System.lineSeparator());
+            } else if (format == Format.JSON) {
+                buffer.append('[').append(System.lineSeparator());
+            }
+            for (int i = 0; i < results.size(); i++) {
+                appendPayslip(results.get(i), buffer);
+                if (format == Format.JSON) {
+                    buffer.append(i < results.size() - 1 ? "," : "").append(System.lineSeparator());
+                } else if (format == Format.CSV) {
+                    buffer.append(System.lineSeparator());
+                }
+                if (buffer.length() >= FLUSH_THRESHOLD) {
+                    flush(channel);
+                }
+            }
+            if (format == Format.JSON) {
+                buffer.append(']').append(System.lineSeparator());
+            }
+            flush(channel);
+        }
+    }
+
+    /**
+     * Writes one file per employee, named payslip_EMPNO_START_END.EXT.
+     *
+     * @param results   Payroll results to render
+     * @param directory Output directory
+     * @throws IOException If a file cannot be written
+     */
+    public void writePerEmployee(List<PayrollResult> results, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (PayrollResult r : results) {
+            Path file = directory.resolve(fileName(r));
+            try (FileChannel channel = openForWrite(file)) {
+                buffer.setLength(0);
+                if (format == Format.CSV) {
+                    buffer.append(CSV_HEADER).append(System.lineSeparator());
+                }
+                appendPayslip(r, buffer);
+                if (format != Format.TEXT) {
+                    buffer.append(System.lineSeparator());
+                }
+                flush(channel);
+            }
+        }
+    }
+
+    /**
+     * @return File name of a per-employee payslip
+     */
+    public String fileName(PayrollResult r) {
+        return "payslip_" + r.getEmployee().getEmployeeNumber() + "_" + r.getStartDate()
+                + "_" + r.getEndDate() + "." + format.getExtension();
+    }
+
+    // -----------------------------------------------------------------------
+    // FIELD RENDERING
+    // -----------------------------------------------------------------------
+
+    private void appendField(PayrollResult r, int id, int width, StringBuilder out) {
+        StringBuilder value = field;
+        value.setLength(0);
+        Employee emp = r.getEmployee();
+        switch (id) {
+            case F_PERIOD:     value.append(r.getStartDate()).append(" to ").append(r.getEndDate()); break;
+            case F_EMP_NO:     value.append(emp.getEmployeeNumber()); break;
+            case F_NAME:       value.append(emp.getLastName()).append(", ").append(emp.getFirstName()); break;
+            case F_POSITION:   value.append(emp.getPosition()); break;
+            case F_STATUS:     value.append(emp.getStatus()); break;
+            case F_HOURS:      appendHours(r.getWorkedMinutes(), value); break;
+            case F_GROSS:      Money.appendTo(value, r.getGrossPay(), true); break;
+            case F_SSS:        Money.appendTo(value, r.getSss(), true); break;
+            case F_PHILHEALTH: Money.appendTo(value, r.getPhilHealth(), true); break;
+            case F_PAGIBIG:    Money.appendTo(value, r.getPagIbig(), true); break;
+            case F_TAX:        Money.appendTo(value, r.getWithholdingTax(), true); break;
+            case F_LATE:       Money.appendTo(value, r.getLateDeduction(), true); break;
+            case F_TOTAL_DEDUCTIONS: Money.appendTo(value, r.getTotalDeductions(), true); break;
+            case F_NET:        Money.appendTo(value, r.getNetPay(), true); break;
+            case F_OVERTIME_HOURS: appendHours(r.getOvertimeMinutes(), value); break;
+            case F_BASIC:      Money.appendTo(value, r.getBasicPay(), true); break;
+            case F_OVERTIME:   Money.appendTo(value, r.getOvertimePay(), true); break;
+            case F_NIGHT:      Money.appendTo(value, r.getNightDifferential(), true); break;
+            case F_PREMIUM:    Money.appendTo(value, r.getHolidayPremium(), true); break;
+            default:           throw new IllegalStateException("Unknown field " + id);
+        }
+        for (int i = value.length(); i < width; i++) {
+            out.append(' ');
+        }
+        out.append(value);
+    }
+
+    /** Appends worked minutes as hours with two decimals, e.g. 2325 -> "38.75". */
+    private static void appendHours(long workedMinutes, StringBuilder out) {
+        Money.appendTo(out, Money.divideRounded(workedMinutes * 100, 60), false);
+    }
+
+    private static void appendCsvRow(PayrollResult r, StringBuilder out) {
+        Employee emp = r.getEmployee();
+        appendCsvText(emp.getEmployeeNumber(), out);
+        out.append(',');
+        appendCsvText(emp.getFullName(), out);
+        out.append(',');
+        appendCsvText(emp.getPosition(), out);
+        out.append(',');
+        appendCsvText(emp.getStatus(), out);
+        out.append(',').append(r.getStartDate()).append(',').append(r.getEndDate()).append(',');
+        appendHours(r.getWorkedMinutes(), out);
+        out.append(',');
+        appendHours(r.getOvertimeMinutes(), out);
+        long[] amounts = {r.getBasicPay(), r.getOvertimePay(), r.getNightDifferential(), r.getHolidayPremium(),
+                r.getGrossPay(), r.getSss(), r.getPhilHealth(), r.getPagIbig(),
+                r.getWithholdingTax(), r.getLateDeduction(), r.getTotalDeductions(), r.getNetPay()};
+        for (long amount : amounts) {
+            out.append(',');
+            Money.appendTo(out, amount, false);
+        }
+    }
+
+    private static void appendCsvText(String value, StringBuilder out) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') out.append('"');
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private static void appendJsonObject(PayrollResult r, StringBuilder out) {
+        Employee emp = r.getEmployee();
+        out.append("{\"employeeNumber\":");
+        appendJsonString(emp.getEmployeeNumber(), out);
+        out.append(",\"name\":");
+        appendJsonString(emp.getFullName(), out);
+        out.append(",\"position\":");
+        appendJsonString(emp.getPosition(), out);
+        out.append(",\"status\":");
+        appendJsonString(emp.getStatus(), out);
+        out.append(",\"payPeriodStart\":\"").append(r.getStartDate());
+        out.append("\",\"payPeriodEnd\":\"").append(r.getEndDate());
+        out.append("\",\"hoursWorked\":");
+        appendHours(r.getWorkedMinutes(), out);
+        out.append(",\"overtimeHours\":");
+        appendHours(r.getOvertimeMinutes(), out);
+        appendJsonAmount("basicPay", r.getBasicPay(), out);
+        appendJsonAmount("overtimePay", r.getOvertimePay(), out);
+        appendJsonAmount("nightDifferential", r.getNightDifferential(), out);
+        appendJsonAmount("holidayPremium", r.getHolidayPremium(), out);
+        appendJsonAmount("grossPay", r.getGrossPay(), out);
+        appendJsonAmount("sss", r.getSss(), out);
+        appendJsonAmount("philHealth", r.getPhilHealth(), out);
+        appendJsonAmount("pagIbig", r.getPagIbig(), out);
+        appendJsonAmount("withholdingTax", r.getWithholdingTax(), out);
+        appendJsonAmount("lateDeduction", r.getLateDeduction(), out);
+        appendJsonAmount("totalDeductions", r.getTotalDeductions(), out);
+        appendJsonAmount("netPay", r.getNetPay(), out);
+        out.append('}');
+    }
+
+    private static void appendJsonAmount(String name, long cents, StringBuilder out) {
+        out.append(",\"").append(name).append("\":");
+        Money.appendTo(out, cents, false);
+    }
+
+    static void appendJsonString(String value, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':  out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    // -----------------------------------------------------------------------
+    // TEMPLATE COMPILATION AND I/O
+    // -----------------------------------------------------------------------
+
+    private static Segment[] compile(String template) {
+        List<Segment> segments = new ArrayList<>();
+        int pos = 0;
+        while (pos < template.length()) {
+            int open = template.indexOf('{', pos);
+            if (open < 0) {
+                segments.add(new Segment(template.substring(pos), -1, 0));
+                break;
+            }
+            if (open > pos) {
+                segments.add(new Segment(template.substring(pos, open), -1, 0));
+            }
+            int close = template.indexOf('}', open);
+            String spec = template.substring(open + 1, close);
+            int colon = spec.indexOf(':');
+            String name = colon < 0 ? spec : spec.substring(0, colon);
+            int width = colon < 0 ? 0 : Integer.parseInt(spec.substring(colon + 1));
+            segments.add(new Segment(null, fieldId(name), width));
+            pos = close + 1;
+        }
+        return segments.toArray(new Segment[0]);
+    }
+
+    private static int fieldId(String name) {
+        for (int i = 0; i < FIELD_NAMES.length; i++) {
+            if (FIELD_NAMES[i].equals(name)) return i;
+        }
+        throw new IllegalArgumentException("Unknown payslip field: " + name);
+    }
+
+    private static FileChannel openForWrite(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static void createParent(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    /** Encodes the buffered chars into the byte buffer and writes them out. */
+    private void flush(FileChannel channel) throws IOException {
+        if (bytes == null) {
+            bytes = ByteBuffer.allocateDirect(FLUSH_THRESHOLD * 2);
+        }
+        CharBuffer chars = CharBuffer.wrap(buffer);
+        encoder.reset();
+        while (true) {
+            CoderResult cr = encoder.encode(chars, bytes, true);
+            drain(channel);
+            if (cr.isUnderflow()) break;
+            if (cr.isError()) cr.throwException();
+        }
+        while (encoder.flush(bytes).isOverflow()) {
+            drain(channel);
+        }
+        drain(channel);
+        buffer.setLength(0);
+    }
+
+    private void drain(FileChannel channel) throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
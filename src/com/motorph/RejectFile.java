@@ -0,0 +1,121 @@
+package com.motorph;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * RejectFile.java - CSV file of input rows that were skipped, with the reason.
+ * Each line is: row number (1 = first data row), reason, then the original fields.
+ * The file is only created once the first row is rejected, and each rejected row
+ * is also counted in PayrollMetrics.
+ */
+public class RejectFile implements Closeable {
+
+    private static final String REJECT_DIR = "output/rejects";
+
+    private final String inputPath;
+    private final File file;
+    private final boolean append;
+    private BufferedWriter writer;
+    private long count;
+
+    /**
+     * @param inputPath Path of the file being read (used in metrics)
+     * @param file      Where rejected rows are written
+     * @param append    Whether to keep rows rejected by earlier runs
+     */
+    public RejectFile(String inputPath, File file, boolean append) {
+        this.inputPath = inputPath;
+        this.file = file;
+        this.append = append;
+    }
+
+    /**
+     * Creates a reject file for an input under output/rejects, e.g.
+     * "data/attendance.csv" writes "output/rejects/attendance_rejects.csv".
+     */
+    public static RejectFile forInput(String inputPath, boolean append) {
+        String name = new File(inputPath).getName();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return new RejectFile(inputPath, new File(REJECT_DIR, base + "_rejects.csv"), append);
+    }
+
+    /**
+     * Records one rejected row.
+     *
+     * @param rowNumber 1-based data row number
+     * @param reason    Why the row was rejected
+     * @param fields    Original CSV fields
+     */
+    public void reject(long rowNumber, String reason, String[] fields) {
+        count++;
+        PayrollMetrics.malformedRow(inputPath, reason);
+        try {
+            if (writer == null) {
+                File parent = file.getAbsoluteFile().getParentFile();
+                if (parent != null) {
+                    parent.mkdirs();
+                }
+                boolean exists = append && file.length() > 0;
+                writer = new BufferedWriter(new FileWriter(file, append));
+                if (!exists) {
+                    writer.write("Row,Reason,Fields");
+                    writer.newLine();
+                }
+            }
+            writer.write(Long.toString(rowNumber));
+            writer.write(',');
+            writer.write(reason);
+            for (String field : fields) {
+                writer.write(',');
+                writeField(field);
+            }
+            writer.newLine();
+        } catch (IOException e) {
+            System.err.println("Could not write reject file " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void writeField(String field) throws IOException {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0
+                && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /** @return Number of rows rejected so far */
+    public long getCount() {
+        return count;
+    }
+
+    /** @return Path of the reject file */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Closes the file and prints one summary line if any rows were rejected.
+     */
+    @Override
+    public void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("Could not write reject file " + file + ": " + e.getMessage());
+            }
+            writer = null;
+        }
+        if (count > 0) {
+            System.err.printf("Skipped %,d malformed rows of %s (see %s)%n", count, inputPath, file);
+        }
+    }
+}
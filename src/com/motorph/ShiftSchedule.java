@@ -0,0 +1,187 @@
+package com.motorph;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ShiftSchedule.java - Compiled work schedules (FR-02).
+ * Shifts are defined in data/shifts.csv (name, start, end, unpaid break minutes, grace
+ * minutes, rest days) and assigned in data/shift_assignments.csv to an employee number or
+ * a position; "*" sets the shift of everyone else. The shift's length less its break is
+ * the daily cap on paid minutes, the break is taken mid-shift (see AttendanceRules.breakOffset),
+ * overtime starts past the shift's end, and a shift whose end is before its start crosses
+ * midnight.
+ *
+ * Each shift is compiled once into a week of day rules (see AttendanceRules), indexed
+ * by day of week, and every employee is mapped to one of these tables, so attendance
+ * loops only index an array per row. Without the files, everyone works the standard
+ * 8:00 AM to 5:00 PM weekday shift. The shared schedule is reloaded when a file changes on disk.
+ */
+public final class ShiftSchedule {
+
+    private static final String SHIFTS_FILE      = "data/shifts.csv";
+    private static final String ASSIGNMENTS_FILE = "data/shift_assignments.csv";
+    private static final String EMPLOYEES_FILE   = "data/employees.csv";
+
+    private static final String[] DAY_NAMES = {"MON", "TUE", "WED", "THU", "FRI", "SAT", "SUN"};
+
+    /** Monday to Friday on AttendanceRules.STANDARD_DAY, weekends off. */
+    private static final long[] STANDARD_WEEK = {
+        AttendanceRules.STANDARD_DAY, AttendanceRules.STANDARD_DAY, AttendanceRules.STANDARD_DAY,
+        AttendanceRules.STANDARD_DAY, AttendanceRules.STANDARD_DAY,
+        AttendanceRules.restDay(AttendanceRules.STANDARD_DAY), AttendanceRules.restDay(AttendanceRules.STANDARD_DAY)
+    };
+
+    private static final FileWatch<ShiftSchedule> SHARED = new FileWatch<>(
+            previous -> load(SHIFTS_FILE, ASSIGNMENTS_FILE, EMPLOYEES_FILE),
+            SHIFTS_FILE, ASSIGNMENTS_FILE, EMPLOYEES_FILE);
+
+    private final long[] defaultWeek;
+    private final Map<String, long[]> weekByEmployee;
+
+    private ShiftSchedule(long[] defaultWeek, Map<String, long[]> weekByEmployee) {
+        this.defaultWeek = defaultWeek;
+        this.weekByEmployee = weekByEmployee;
+    }
+
+    /** @return A schedule that puts everyone on the standard weekday shift */
+    public static ShiftSchedule standard() {
+        return new ShiftSchedule(STANDARD_WEEK, new HashMap<>());
+    }
+
+    /**
+     * Returns the shared schedule, recompiling it when the shift, assignment or
+     * employee file changed (see FileWatch).
+     *
+     * @return Current compiled schedule
+     */
+    public static ShiftSchedule shared() {
+        return SHARED.get();
+    }
+
+    /**
+     * Returns an employee's week of day rules, indexed by AttendanceRules.dayOfWeek.
+     * The array is shared by every employee on the same shift and must not be modified.
+     *
+     * @param employeeNumber The employee ID
+     * @return Day rules, Monday to Sunday
+     */
+    public long[] weekOf(String employeeNumber) {
+        long[] week = weekByEmployee.get(employeeNumber);
+        return week != null ? week : defaultWeek;
+    }
+
+    // -----------------------------------------------------------------------
+    // COMPILING
+    // -----------------------------------------------------------------------
+
+    /**
+     * Reads and compiles the shift and assignment files. A missing shift or
+     * assignment file leaves everyone on the standard shift; invalid rows are skipped.
+     *
+     * @param shiftsPath      Path to shifts.csv
+     * @param assignmentsPath Path to shift_assignments.csv
+     * @param employeesPath   Path to employees.csv, for assignments by position
+     * @return Compiled schedule
+     */
+    public static ShiftSchedule load(String shiftsPath, String assignmentsPath, String employeesPath) {
+        if (!new File(shiftsPath).isFile() || !new File(assignmentsPath).isFile()) {
+            return standard();
+        }
+        CSVReader reader = new CSVReader();
+
+        // Shift,Start,End,Break Minutes,Grace Minutes,Rest Days
+        Map<String, long[]> shifts = new HashMap<>();
+        reader.forEachRow(shiftsPath, row -> {
+            long[] week = row.length < 6 ? null : compileShift(row);
+            if (week == null) {
+                PayrollMetrics.malformedRow(shiftsPath, "invalid shift");
+                System.err.println("Skipping invalid shift: " + String.join(",", row));
+                return;
+            }
+            shifts.put(row[0].trim().toUpperCase(Locale.ROOT), week);
+        });
+
+        // Employee # or Position,Shift
+        Map<String, long[]> byEmployee = new HashMap<>();
+        Map<String, long[]> byPosition = new LinkedHashMap<>();
+        long[][] defaultWeek = {STANDARD_WEEK};
+        reader.forEachRow(assignmentsPath, row -> {
+            long[] week = row.length < 2 ? null : shifts.get(row[1].trim().toUpperCase(Locale.ROOT));
+            if (week == null) {
+                PayrollMetrics.malformedRow(assignmentsPath, "unknown shift");
+                System.err.println("Skipping invalid shift assignment: " + String.join(",", row));
+                return;
+            }
+            String key = row[0].trim();
+            if (key.equals("*")) {
+                defaultWeek[0] = week;
+            } else if (AttendanceRowParser.parseEmployeeNumber(key) >= 0) {
+                byEmployee.put(key, week);
+            } else {
+                byPosition.put(key, week);
+            }
+        });
+
+        // Position assignments apply to employees without their own assignment
+        Map<String, long[]> weekByEmployee = new HashMap<>();
+        if (!byPosition.isEmpty()) {
+            reader.forEachRow(employeesPath, row -> {
+                if (row.length < 12) return; // Reported by the employee loaders
+                long[] week = byPosition.get(row[11].trim());
+                if (week != null) {
+                    weekByEmployee.put(row[0].trim(), week);
+                }
+            });
+        }
+        weekByEmployee.putAll(byEmployee);
+        return new ShiftSchedule(defaultWeek[0], weekByEmployee);
+    }
+
+    /** @return The shift's week of day rules, or null if the row is invalid */
+    private static long[] compileShift(String[] row) {
+        int start = AttendanceRowParser.parseTime(row[1]);
+        int end = AttendanceRowParser.parseTime(row[2]);
+        if (start < 0 || end < 0) {
+            return null;
+        }
+        long workday;
+        try {
+            int length = Math.floorMod(end - start, AttendanceRules.MINUTES_PER_DAY);
+            workday = AttendanceRules.dayRule(start, length,
+                    Integer.parseInt(row[3].trim()), Integer.parseInt(row[4].trim()));
+        } catch (IllegalArgumentException e) {
+            return null; // Bad break or grace minutes, or a shift that starts and ends at the same time
+        }
+
+        long[] week = {workday, workday, workday, workday, workday, workday, workday};
+        for (String day : row[5].trim().toUpperCase(Locale.ROOT).split("[\\s|;]+")) {
+            if (day.isEmpty()) continue;
+            int dow = dayIndex(day);
+            if (dow < 0) {
+                return null;
+            }
+            week[dow] = AttendanceRules.restDay(workday);
+        }
+        return week;
+    }
+
+    private static int dayIndex(String day) {
+        for (int i = 0; i < DAY_NAMES.length; i++) {
+            if (day.startsWith(DAY_NAMES[i])) return i;
+        }
+        return -1;
+    }
+
+    /** @return Hash of a week of day rules, for PayrollLedger input hashes */
+    public static long weekHash(long[] week) {
+        long h = PayrollLedger.SEED;
+        for (long rule : week) {
+            h = PayrollLedger.hash(h, rule);
+        }
+        return h;
+    }
+}
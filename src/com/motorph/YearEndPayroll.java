@@ -0,0 +1,315 @@
+package com.motorph;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * YearEndPayroll.java - A year of weekly payrolls from a single attendance scan.
+ * The attendance CSV is read once and every row is added to a flat table of
+ * attendance totals (see AttendanceSummary) indexed by (employee, pay period), covering every
+ * pay period that starts in the year. Each period's payroll (FR-03 to FR-08) is then
+ * computed from the table, followed by a year-end tax reconciliation: the tax due on
+ * the year's total taxable income (annualized monthly table) against the tax withheld.
+ * Periods in which an employee has no attendance are not paid.
+ *
+ * Usage: java com.motorph.YearEndPayroll YEAR [OUTPUT_DIR] [THREADS]
+ */
+public class YearEndPayroll {
+
+    private static final String EMPLOYEES_FILE  = "data/employees.csv";
+    private static final String ATTENDANCE_FILE = "data/attendance.csv";
+    private static final int CHUNK = 4096; // employees computed and written per batch
+
+    private static final String RECONCILIATION_HEADER = "Employee #,Last Name,First Name,Periods Paid,"
+            + "Gross Pay,Taxable Income,Tax Withheld,Annual Tax Due,Year-End Adjustment";
+
+    /** Payroll of one employee for every paid period of the year, with the tax reconciliation. */
+    public static final class EmployeeYear {
+        private final Employee employee;
+        private final PayrollResult[] periods;
+        private final long grossPay;
+        private final long taxableIncome;
+        private final long taxWithheld;
+        private final long annualTax;
+
+        EmployeeYear(Employee employee, PayrollResult[] periods, long annualTax) {
+            this.employee = employee;
+            this.periods = periods;
+            long gross = 0;
+            long taxable = 0;
+            long withheld = 0;
+            for (PayrollResult r : periods) {
+                gross += r.getGrossPay();
+                taxable += r.getTaxableIncome();
+                withheld += r.getWithholdingTax();
+            }
+            this.grossPay = gross;
+            this.taxableIncome = taxable;
+            this.taxWithheld = withheld;
+            this.annualTax = annualTax;
+        }
+
+        public Employee getEmployee()         { return employee; }
+        public PayrollResult[] getPeriods()   { return periods.clone(); }
+        public long getGrossPay()             { return grossPay; }
+        public long getTaxableIncome()        { return taxableIncome; }
+        public long getTaxWithheld()          { return taxWithheld; }
+        public long getAnnualTax()            { return annualTax; }
+
+        /** @return Tax still owed (positive) or to be refunded (negative) */
+        public long getAdjustment()           { return annualTax - taxWithheld; }
+    }
+
+    private final EmployeeTable employees;
+    private final PayrollCalculator payrollCalculator;
+    private final DeductionCalculator deductionCalculator;
+    private final PayPeriodCalendar calendar;
+    private final int year;
+    private final int firstPeriod;
+    private final int periodCount;
+    private final String[] periodStarts;
+    private final String[] periodEnds;
+    private final Map<String, Integer> employeeIndex;
+    private final long[][] weeks; // Day rules of each employee's shift, by employee index
+
+    // Indexed by employee * periodCount + period
+    private final int[] totals; // AttendanceSummary.FIELDS per cell; a period's totals fit an int
+    private final short[] daysLogged;
+
+    public YearEndPayroll(EmployeeTable employees, DeductionCalculator deductionCalculator,
+                          PayPeriodCalendar calendar, int year) {
+        this.employees = employees;
+        this.deductionCalculator = deductionCalculator;
+        this.payrollCalculator = new PayrollCalculator(deductionCalculator);
+        this.calendar = calendar;
+        this.year = year;
+
+        // Every period that starts within the year
+        LocalDate jan1 = LocalDate.of(year, 1, 1);
+        int first = calendar.periodOf(jan1);
+        if (calendar.start(first).isBefore(jan1)) {
+            first++;
+        }
+        this.firstPeriod = first;
+        this.periodCount = calendar.periodOf(LocalDate.of(year, 12, 31)) - first + 1;
+        this.periodStarts = new String[periodCount];
+        this.periodEnds = new String[periodCount];
+        for (int p = 0; p < periodCount; p++) {
+            periodStarts[p] = calendar.start(first + p).toString();
+            periodEnds[p] = calendar.end(first + p).toString();
+        }
+
+        this.employeeIndex = new HashMap<>(employees.size() * 2);
+        this.weeks = new long[employees.size()][];
+        ShiftSchedule schedule = ShiftSchedule.shared();
+        for (int i = 0; i < employees.size(); i++) {
+            String employeeNumber = employees.employeeNumber(i);
+            employeeIndex.put(employeeNumber, i);
+            weeks[i] = schedule.weekOf(employeeNumber);
+        }
+        int cells = Math.multiplyExact(employees.size(), periodCount);
+        this.totals = new int[Math.multiplyExact(cells, AttendanceSummary.FIELDS)];
+        this.daysLogged = new short[cells];
+    }
+
+    public int getYear()        { return year; }
+    public int getPeriodCount() { return periodCount; }
+
+    /**
+     * Reads the attendance CSV once and adds every row inside the year's
+     * pay periods to its (employee, period) cell. Rows of unknown employees are ignored.
+     *
+     * @param attendancePath Path to attendance.csv
+     * @return Number of rows added
+     */
+    public long aggregate(String attendancePath) {
+        AttendanceRowParser parser = new AttendanceRowParser();
+        int firstDay = (int) calendar.start(firstPeriod).toEpochDay();
+        int lastDay  = (int) calendar.end(firstPeriod + periodCount - 1).toEpochDay();
+        long[] counters = {0, 0}; // rows read, rows added
+        HolidayCalendar holidays = HolidayCalendar.shared();
+        long[] rowTotals = new long[AttendanceSummary.FIELDS]; // totals of one row
+
+        long t0 = PayrollMetrics.start();
+        try (RejectFile rejects = RejectFile.forInput(attendancePath, false)) {
+            new CSVReader().forEachRow(attendancePath, row -> {
+                long rowNumber = ++counters[0];
+                int code = parser.parse(row);
+                if (code != AttendanceRowParser.OK) {
+                    rejects.reject(rowNumber, AttendanceRowParser.reason(code), row);
+                    return;
+                }
+                int day = parser.getEpochDay();
+                if (day < firstDay || day > lastDay) return;
+                Integer emp = employeeIndex.get(row[0].trim());
+                if (emp == null) return;
+
+                int cell = emp * periodCount + calendar.periodOf(day) - firstPeriod;
+                Arrays.fill(rowTotals, 0);
+                AttendanceRules.addDay(rowTotals, 0, weeks[emp][AttendanceRules.dayOfWeek(day)], holidays.typeOf(day),
+                        parser.getMinuteIn(), parser.getMinuteOut());
+                int at = cell * AttendanceSummary.FIELDS;
+                for (int f = 0; f < AttendanceSummary.FIELDS; f++) {
+                    totals[at + f] += (int) rowTotals[f];
+                }
+                daysLogged[cell]++;
+                counters[1]++;
+            });
+        }
+        PayrollMetrics.record(PayrollMetrics.Stage.ATTENDANCE, t0);
+        return counters[1];
+    }
+
+    /**
+     * Computes the payroll of every paid period of one employee and the year-end tax.
+     *
+     * @param index Row of the employee in the employee table
+     * @return The employee's year
+     */
+    public EmployeeYear computeEmployee(int index) {
+        Employee emp = employees.employee(index);
+        int base = index * periodCount;
+        int paid = 0;
+        for (int p = 0; p < periodCount; p++) {
+            if (daysLogged[base + p] > 0) paid++;
+        }
+        PayrollResult[] results = new PayrollResult[paid];
+        int n = 0;
+        for (int p = 0; p < periodCount; p++) {
+            int cell = base + p;
+            if (daysLogged[cell] == 0) continue;
+            int at = cell * AttendanceSummary.FIELDS;
+            long[] cellTotals = new long[AttendanceSummary.FIELDS];
+            for (int f = 0; f < AttendanceSummary.FIELDS; f++) {
+                cellTotals[f] = totals[at + f];
+            }
+            AttendanceSummary attendance = AttendanceSummary.of(cellTotals, 0);
+            results[n++] = payrollCalculator.computePayroll(emp, attendance, periodStarts[p], periodEnds[p]);
+        }
+        long taxable = 0;
+        for (PayrollResult r : results) {
+            taxable += r.getTaxableIncome();
+        }
+        return new EmployeeYear(emp, results, deductionCalculator.computeAnnualTax(taxable));
+    }
+
+    /**
+     * Computes every employee's year in parallel, in batches of CHUNK employees, and
+     * writes the payroll register (one row per employee and paid period) and the
+     * tax reconciliation (one row per employee).
+     *
+     * @param registerPath       Output path of the payroll register
+     * @param reconciliationPath Output path of the tax reconciliation
+     * @param threads            Number of worker threads
+     * @return Sum of all year-end adjustments, in centavos
+     * @throws IOException If an output file cannot be written
+     */
+    public long write(String registerPath, String reconciliationPath, int threads) throws IOException {
+        mkdirsFor(registerPath);
+        mkdirsFor(reconciliationPath);
+        long totalAdjustment = 0;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try (BufferedWriter register = new BufferedWriter(new FileWriter(registerPath), 64 * 1024);
+             BufferedWriter reconciliation = new BufferedWriter(new FileWriter(reconciliationPath), 64 * 1024)) {
+            register.write(BatchPayroll.REGISTER_HEADER);
+            register.newLine();
+            reconciliation.write(RECONCILIATION_HEADER);
+            reconciliation.newLine();
+
+            for (int from = 0; from < employees.size(); from += CHUNK) {
+                int to = Math.min(from + CHUNK, employees.size());
+                int start = from;
+                List<EmployeeYear> batch = pool.submit(() -> IntStream.range(start, to).parallel()
+                        .mapToObj(this::computeEmployee)
+                        .collect(Collectors.toList()))
+                        .get();
+                for (EmployeeYear y : batch) {
+                    for (PayrollResult r : y.periods) {
+                        BatchPayroll.writeRegisterRow(register, r);
+                    }
+                    writeReconciliationRow(reconciliation, y);
+                    totalAdjustment += y.getAdjustment();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Year-end run interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Year-end run failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return totalAdjustment;
+    }
+
+    private static void writeReconciliationRow(BufferedWriter out, EmployeeYear y) throws IOException {
+        Employee emp = y.getEmployee();
+        out.write(emp.getEmployeeNumber());
+        out.write(',');
+        out.write(BatchPayroll.csvField(emp.getLastName()));
+        out.write(',');
+        out.write(BatchPayroll.csvField(emp.getFirstName()));
+        out.write(',');
+        out.write(Integer.toString(y.periods.length));
+        long[] amounts = {y.getGrossPay(), y.getTaxableIncome(), y.getTaxWithheld(),
+                y.getAnnualTax(), y.getAdjustment()};
+        for (long amount : amounts) {
+            out.write(',');
+            out.write(Money.toPlainString(amount));
+        }
+        out.newLine();
+    }
+
+    private static void mkdirsFor(String filePath) {
+        File parent = new File(filePath).getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java com.motorph.YearEndPayroll YEAR [OUTPUT_DIR] [THREADS]");
+            System.exit(1);
+        }
+        int year       = Integer.parseInt(args[0]);
+        String outDir  = args.length > 1 ? args[1] : "output";
+        int threads    = args.length > 2 ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+        String register       = outDir + "/payroll_register_" + year + ".csv";
+        String reconciliation = outDir + "/tax_reconciliation_" + year + ".csv";
+
+        PayrollMetrics.registerMBean();
+        long t0 = System.nanoTime();
+        EmployeeTable employees = EmployeeTable.load(EMPLOYEES_FILE);
+        YearEndPayroll run = new YearEndPayroll(employees, new DeductionCalculator(),
+                PayPeriodCalendar.weekly(), year);
+        long rows = run.aggregate(ATTENDANCE_FILE);
+        long t1 = System.nanoTime();
+        long adjustment = run.write(register, reconciliation, threads);
+        long t2 = System.nanoTime();
+
+        System.out.println("=== YEAR-END PAYROLL RUN ===");
+        System.out.printf("  Year           : %d (%d weekly periods)%n", year, run.getPeriodCount());
+        System.out.printf("  Employees      : %,d%n", employees.size());
+        System.out.printf("  Attendance rows: %,d in one scan%n", rows);
+        System.out.printf("  Load + scan    : %.3f s%n", (t1 - t0) / 1e9);
+        System.out.printf("  Compute + write: %.3f s%n", (t2 - t1) / 1e9);
+        System.out.println("  Net year-end tax adjustment: PHP " + Money.format(adjustment));
+        System.out.println("  Register       : " + register);
+        System.out.println("  Reconciliation : " + reconciliation);
+        System.out.println();
+        System.out.print(PayrollMetrics.get().getSummary());
+    }
+}